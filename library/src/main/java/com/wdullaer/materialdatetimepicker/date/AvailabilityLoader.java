@@ -0,0 +1,198 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the availability of months from a {@link DateAvailabilityProvider} on a background thread
+ * and keeps the results in an LRU cache keyed by month index.
+ *
+ * Months are loaded in the reverse order in which they were requested, so the months the user is
+ * looking at right now win over ones that were requested earlier during a fling. Only the last
+ * few requests are kept. The lookups are thread safe, so constraints can be evaluated from any
+ * thread. A month for which the provider throws is treated as having no available days, until
+ * it is evicted from the cache and requested again.
+ */
+final class AvailabilityLoader {
+    private static final String TAG = "AvailabilityLoader";
+    static final int CACHE_SIZE = 36;
+    private static final int MAX_QUEUED_MONTHS = 12;
+    private static final int NONE = Integer.MIN_VALUE;
+
+    /**
+     * Called on the main thread when the availability of a month has been loaded
+     */
+    interface OnAvailabilityLoadedListener {
+        void onAvailabilityLoaded(int monthIndex);
+    }
+
+    private final DateAvailabilityProvider mProvider;
+    private final OnAvailabilityLoadedListener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService mExecutor;
+
+    // All of the state below is guarded by this
+    private final int[] mMonthIndex = new int[CACHE_SIZE];
+    private final int[] mMasks = new int[CACHE_SIZE];
+    private final boolean[] mValid = new boolean[CACHE_SIZE];
+    private final long[] mLastUse = new long[CACHE_SIZE];
+    private long mClock;
+    private final int[] mQueue = new int[MAX_QUEUED_MONTHS];
+    private int mQueueSize;
+    private int mLoading = NONE;
+    private boolean mWorkerScheduled;
+    private boolean mShutdown;
+
+    AvailabilityLoader(DateAvailabilityProvider provider, OnAvailabilityLoadedListener listener) {
+        mProvider = provider;
+        mListener = listener;
+        // A single thread that goes away when there is nothing left to load
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new BackgroundThreadFactory("AvailabilityLoader"));
+        executor.allowCoreThreadTimeOut(true);
+        mExecutor = executor;
+    }
+
+    /**
+     * @param monthIndex The month index (year * 12 + month)
+     * @return true if the availability of the given month has been loaded
+     */
+    synchronized boolean isLoaded(int monthIndex) {
+        return indexOf(monthIndex) >= 0;
+    }
+
+    /**
+     * @param monthIndex The month index (year * 12 + month)
+     * @return A mask in which bit day - 1 is set for every available day of the given month.
+     * Days in months that haven't been loaded are not available.
+     */
+    synchronized int getAvailableDays(int monthIndex) {
+        final int slot = indexOf(monthIndex);
+        if (slot < 0) return 0;
+        mLastUse[slot] = ++mClock;
+        return mMasks[slot];
+    }
+
+    /**
+     * Queues the given month for loading, unless it has been loaded already. Requesting a month
+     * that is already queued moves it to the front of the queue.
+     * @param monthIndex The month index (year * 12 + month)
+     */
+    synchronized void request(int monthIndex) {
+        if (mShutdown || mLoading == monthIndex || indexOf(monthIndex) >= 0) return;
+
+        // Drop the month from its current place in the queue, or the oldest request if it is full
+        int from = 0;
+        while (from < mQueueSize && mQueue[from] != monthIndex) from++;
+        if (from == mQueueSize && mQueueSize == MAX_QUEUED_MONTHS) from = 0;
+        if (from < mQueueSize) {
+            System.arraycopy(mQueue, from + 1, mQueue, from, mQueueSize - from - 1);
+            mQueueSize--;
+        }
+        mQueue[mQueueSize++] = monthIndex;
+
+        if (!mWorkerScheduled) {
+            mWorkerScheduled = true;
+            mExecutor.execute(mWorker);
+        }
+    }
+
+    /**
+     * Stops loading. The month being loaded is finished, but nothing else is loaded and the
+     * listener is no longer called. Call this when the provider is replaced.
+     */
+    void shutdown() {
+        synchronized (this) {
+            mShutdown = true;
+            mQueueSize = 0;
+        }
+        mExecutor.shutdown();
+    }
+
+    private final Runnable mWorker = new Runnable() {
+        @Override
+        public void run() {
+            boolean drained = false;
+            try {
+                drainQueue();
+                drained = true;
+            } finally {
+                if (!drained) {
+                    // Something other than the provider failed, let the next request start a new worker
+                    synchronized (AvailabilityLoader.this) {
+                        mWorkerScheduled = false;
+                        mLoading = NONE;
+                    }
+                }
+            }
+        }
+    };
+
+    private void drainQueue() {
+        while (true) {
+            final int monthIndex;
+            synchronized (this) {
+                if (mQueueSize == 0) {
+                    mWorkerScheduled = false;
+                    return;
+                }
+                monthIndex = mQueue[--mQueueSize];
+                mLoading = monthIndex;
+            }
+
+            int mask = 0;
+            try {
+                mask = mProvider.getAvailableDays(
+                        monthIndex / MonthAdapter.MONTHS_IN_YEAR,
+                        monthIndex % MonthAdapter.MONTHS_IN_YEAR
+                );
+            } catch (RuntimeException e) {
+                // Don't let a failing provider take the loader down, or every month stays pending
+                Log.e(TAG, "Failed to load the available days of month " + monthIndex, e);
+            }
+
+            synchronized (this) {
+                mLoading = NONE;
+                if (mShutdown) {
+                    mWorkerScheduled = false;
+                    return;
+                }
+                put(monthIndex, mask);
+            }
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mListener.onAvailabilityLoaded(monthIndex);
+                }
+            });
+        }
+    }
+
+    private void put(int monthIndex, int mask) {
+        int slot = 0;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (!mValid[i]) {
+                slot = i;
+                break;
+            }
+            if (mLastUse[i] < mLastUse[slot]) slot = i;
+        }
+        mValid[slot] = true;
+        mMonthIndex[slot] = monthIndex;
+        mMasks[slot] = mask;
+        mLastUse[slot] = ++mClock;
+    }
+
+    private int indexOf(int monthIndex) {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (mValid[i] && mMonthIndex[i] == monthIndex) return i;
+        }
+        return -1;
+    }
+}
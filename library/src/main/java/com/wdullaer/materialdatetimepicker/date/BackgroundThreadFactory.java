@@ -0,0 +1,30 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.os.Process;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates daemon threads with background priority, for work that must never compete with
+ * drawing the picker
+ */
+final class BackgroundThreadFactory implements ThreadFactory {
+    private final String mName;
+
+    BackgroundThreadFactory(String name) {
+        mName = name;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }
+        }, mName);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
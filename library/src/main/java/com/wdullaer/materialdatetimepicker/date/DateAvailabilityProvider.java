@@ -0,0 +1,20 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * Supplies the days that can be selected one month at a time, for availability that is too
+ * expensive to load up front, for instance because it is read from a database.
+ *
+ * The picker only asks for the months it is about to show, and caches the results. Until the
+ * availability of a month has been loaded its days are drawn in a pending style and can't be
+ * selected.
+ */
+public interface DateAvailabilityProvider {
+    /**
+     * Loads which days of a month can be selected. This is called on a background thread, so it
+     * is fine to block here.
+     * @param year The year
+     * @param month The month (0-11)
+     * @return A bitmask in which bit (day - 1) is set if that day of the month can be selected
+     */
+    int getAvailableDays(int year, int month);
+}
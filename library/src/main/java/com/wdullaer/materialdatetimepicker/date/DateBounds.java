@@ -0,0 +1,77 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * An immutable snapshot of the range of dates a date picker can show. Months are expressed as a
+ * month index (year * 12 + month), so list positions can be computed with integer arithmetic.
+ */
+public final class DateBounds {
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private final int mStartEpochDay;
+    private final int mEndEpochDay;
+    private final int mFirstMonthIndex;
+    private final int mLastMonthIndex;
+    private final int mMinYear;
+    private final int mMaxYear;
+
+    /**
+     * @param startEpochDay The first day that can be shown
+     * @param endEpochDay The last day that can be shown
+     * @param minYear The first year that can be selected in the year picker
+     * @param maxYear The last year that can be selected in the year picker
+     */
+    public DateBounds(int startEpochDay, int endEpochDay, int minYear, int maxYear) {
+        mStartEpochDay = startEpochDay;
+        mEndEpochDay = endEpochDay;
+        mFirstMonthIndex = getMonthIndex(EpochDays.getYear(startEpochDay), EpochDays.getMonth(startEpochDay));
+        mLastMonthIndex = getMonthIndex(EpochDays.getYear(endEpochDay), EpochDays.getMonth(endEpochDay));
+        mMinYear = minYear;
+        mMaxYear = maxYear;
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The month index of the given month: year * 12 + month
+     */
+    public static int getMonthIndex(int year, int month) {
+        return year * MONTHS_IN_YEAR + month;
+    }
+
+    public int getStartEpochDay() {
+        return mStartEpochDay;
+    }
+
+    public int getEndEpochDay() {
+        return mEndEpochDay;
+    }
+
+    /**
+     * @return The month index of the first month that can be shown
+     */
+    public int getFirstMonthIndex() {
+        return mFirstMonthIndex;
+    }
+
+    /**
+     * @return The month index of the last month that can be shown
+     */
+    public int getLastMonthIndex() {
+        return mLastMonthIndex;
+    }
+
+    /**
+     * @return The number of months between the first and the last month, both included
+     */
+    public int getMonthCount() {
+        return mLastMonthIndex - mFirstMonthIndex + 1;
+    }
+
+    public int getMinYear() {
+        return mMinYear;
+    }
+
+    public int getMaxYear() {
+        return mMaxYear;
+    }
+}
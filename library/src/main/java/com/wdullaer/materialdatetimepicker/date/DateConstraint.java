@@ -0,0 +1,20 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * Decides which days of a month can be selected. Constraints are evaluated one month at a time,
+ * so combining them costs a few bitwise operations per month rather than a check per day.
+ * Use {@link DateConstraints} to create and combine them.
+ *
+ * Implementations must be immutable, or at least safe to call from a background thread, as the
+ * months of the picker are prepared off the main thread.
+ */
+public interface DateConstraint {
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return A mask in which bit day - 1 is set for every day of the given month that can be
+     * selected. Bits past the last day of the month are ignored.
+     */
+    int getMonthMask(int year, int month);
+}
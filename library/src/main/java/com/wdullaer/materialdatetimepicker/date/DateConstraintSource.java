@@ -0,0 +1,38 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * A source of days that can't be selected and that change while the picker is open, for
+ * instance slots that are booked by other users. Instead of the whole list, the source reports
+ * which days changed, and the picker applies the changes to its own copy of the disabled days.
+ *
+ * Changes may be reported from any thread and at any rate. The picker collects them and applies
+ * them at most once per frame, redrawing only the months that changed.
+ */
+public interface DateConstraintSource {
+
+    /**
+     * Called when the picker becomes visible. From then on the source should report changes to
+     * the listener. The first call after start has to contain every day that is disabled at that
+     * moment, as the picker may have missed changes while it wasn't visible; later calls only
+     * contain the days that changed.
+     * @param listener The listener to notify
+     */
+    void start(OnDaysChangedListener listener);
+
+    /**
+     * Called when the picker is no longer visible. The source should stop calling the listener.
+     */
+    void stop();
+
+    /**
+     * The callback used to report changed days to the picker. May be called from any thread.
+     */
+    interface OnDaysChangedListener {
+
+        /**
+         * @param enabledDays The epoch days that can be selected again, in any order
+         * @param disabledDays The epoch days that can no longer be selected, in any order
+         */
+        void onDaysChanged(int[] enabledDays, int[] disabledDays);
+    }
+}
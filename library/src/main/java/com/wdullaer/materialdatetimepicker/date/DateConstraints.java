@@ -0,0 +1,234 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import java.util.Calendar;
+
+/**
+ * Factory methods for {@link DateConstraint}s. The basic constraints cover bounds, sets of days,
+ * sets of ranges and days of the week, and can be combined with {@link #union}, {@link #intersection},
+ * {@link #difference} and {@link #not}. For example, working days in the next 90 days that aren't
+ * holidays:
+ * <pre>
+ * DateConstraints.difference(
+ *         DateConstraints.intersection(
+ *                 DateConstraints.weekdays(Calendar.MONDAY, Calendar.TUESDAY, Calendar.WEDNESDAY,
+ *                         Calendar.THURSDAY, Calendar.FRIDAY),
+ *                 DateConstraints.between(today, today + 90)),
+ *         DateConstraints.days(holidays));
+ * </pre>
+ * Every constraint computes the mask of a whole month at once. Wrap constraints that are
+ * expensive to evaluate with {@link #memoize} to keep the masks of recently used months.
+ */
+public final class DateConstraints {
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final DateConstraint ALL = new DateConstraint() {
+        @Override
+        public int getMonthMask(int year, int month) {
+            return -1;
+        }
+    };
+
+    private static final DateConstraint NONE = new DateConstraint() {
+        @Override
+        public int getMonthMask(int year, int month) {
+            return 0;
+        }
+    };
+
+    private DateConstraints() {
+        // Static factories only
+    }
+
+    /**
+     * @return A constraint that allows every day
+     */
+    public static DateConstraint all() {
+        return ALL;
+    }
+
+    /**
+     * @return A constraint that doesn't allow any day
+     */
+    public static DateConstraint none() {
+        return NONE;
+    }
+
+    /**
+     * @param firstEpochDay The first allowed day, as the number of days since 1970-01-01
+     * @param lastEpochDay The last allowed day, as the number of days since 1970-01-01
+     * @return A constraint that allows the days between the given days, both included
+     */
+    public static DateConstraint between(final int firstEpochDay, final int lastEpochDay) {
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                final int first = EpochDays.of(year, month, 1);
+                final int last = first + EpochDays.getDaysInMonth(year, month) - 1;
+                if (last < firstEpochDay || first > lastEpochDay) return 0;
+                return bits(Math.max(first, firstEpochDay) - first, Math.min(last, lastEpochDay) - first);
+            }
+        };
+    }
+
+    /**
+     * @param firstDay The first allowed day, or null to allow every day up to lastDay
+     * @param lastDay The last allowed day, or null to allow every day from firstDay
+     * @return A constraint that allows the days between the given days, both included
+     */
+    public static DateConstraint between(Calendar firstDay, Calendar lastDay) {
+        return between(
+                firstDay != null ? EpochDays.of(firstDay) : Integer.MIN_VALUE,
+                lastDay != null ? EpochDays.of(lastDay) : Integer.MAX_VALUE
+        );
+    }
+
+    /**
+     * @param days The allowed days
+     * @return A constraint that only allows the days in the given set
+     */
+    public static DateConstraint days(final DateSet days) {
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                return days.getMonthMask(year, month);
+            }
+        };
+    }
+
+    /**
+     * @param ranges The allowed ranges
+     * @return A constraint that only allows the days in the given ranges
+     */
+    public static DateConstraint ranges(final DateRangeSet ranges) {
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                return ranges.getMonthMask(year, month);
+            }
+        };
+    }
+
+    /**
+     * @param daysOfWeek The allowed days of the week, {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return A constraint that only allows the given days of the week
+     */
+    public static DateConstraint weekdays(int... daysOfWeek) {
+        int weekMask = 0;
+        for (int dayOfWeek : daysOfWeek) {
+            if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY) {
+                throw new IllegalArgumentException("Value must be between Calendar.SUNDAY and Calendar.SATURDAY");
+            }
+            weekMask |= 1 << (dayOfWeek - Calendar.SUNDAY);
+        }
+        // The mask of a month only depends on the day of the week it starts on
+        final int[] monthMasks = new int[DAYS_IN_WEEK];
+        for (int firstDayOfWeek = 0; firstDayOfWeek < DAYS_IN_WEEK; firstDayOfWeek++) {
+            int mask = 0;
+            for (int day = 0; day < 31; day++) {
+                if ((weekMask & (1 << ((firstDayOfWeek + day) % DAYS_IN_WEEK))) != 0) mask |= 1 << day;
+            }
+            monthMasks[firstDayOfWeek] = mask;
+        }
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                return monthMasks[EpochDays.getDayOfWeek(EpochDays.of(year, month, 1)) - Calendar.SUNDAY];
+            }
+        };
+    }
+
+    /**
+     * @param constraints The constraints to combine
+     * @return A constraint that allows the days allowed by any of the given constraints
+     */
+    public static DateConstraint union(DateConstraint... constraints) {
+        final DateConstraint[] copy = constraints.clone();
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                int mask = 0;
+                for (DateConstraint constraint : copy) {
+                    mask |= constraint.getMonthMask(year, month);
+                    if (mask == -1) break;
+                }
+                return mask;
+            }
+        };
+    }
+
+    /**
+     * @param constraints The constraints to combine
+     * @return A constraint that only allows the days allowed by all of the given constraints
+     */
+    public static DateConstraint intersection(DateConstraint... constraints) {
+        final DateConstraint[] copy = constraints.clone();
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                int mask = -1;
+                for (DateConstraint constraint : copy) {
+                    mask &= constraint.getMonthMask(year, month);
+                    // Later constraints aren't evaluated once no day is left
+                    if (mask == 0) break;
+                }
+                return mask;
+            }
+        };
+    }
+
+    /**
+     * @param allowed The days to allow
+     * @param excluded The days to exclude from them
+     * @return A constraint that allows the days allowed by the first constraint, but not by the second
+     */
+    public static DateConstraint difference(final DateConstraint allowed, final DateConstraint excluded) {
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                final int mask = allowed.getMonthMask(year, month);
+                if (mask == 0) return 0;
+                return mask & ~excluded.getMonthMask(year, month);
+            }
+        };
+    }
+
+    /**
+     * @param constraint The constraint to invert
+     * @return A constraint that allows exactly the days the given constraint doesn't allow
+     */
+    public static DateConstraint not(final DateConstraint constraint) {
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                return ~constraint.getMonthMask(year, month);
+            }
+        };
+    }
+
+    /**
+     * Keeps the masks of the most recently used months of the given constraint, so it is only
+     * evaluated once per month while that month stays in use
+     * @param constraint The constraint to memoize
+     * @param maxMonths The number of months to keep
+     * @return The memoized constraint
+     */
+    public static MemoizedDateConstraint memoize(DateConstraint constraint, int maxMonths) {
+        return new MemoizedDateConstraint(constraint, maxMonths);
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return A mask with a bit set for every day of the given month
+     */
+    static int fullMonthMask(int year, int month) {
+        return bits(0, EpochDays.getDaysInMonth(year, month) - 1);
+    }
+
+    /**
+     * @return A mask with the bits from fromBit up to and including toBit set
+     */
+    static int bits(int fromBit, int toBit) {
+        return (-1 >>> (31 - toBit)) & (-1 << fromBit);
+    }
+}
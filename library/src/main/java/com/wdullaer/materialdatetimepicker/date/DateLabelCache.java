@@ -0,0 +1,211 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.content.Context;
+import android.os.Build;
+import android.text.format.DateFormat;
+
+import com.wdullaer.materialdatetimepicker.R;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * A process wide cache of the localized labels drawn by the date picker: day numbers, weekday
+ * labels, month titles and years. The cache is keyed by the default locale and is cleared the first
+ * time it is used after the locale changed, so after warm up drawing doesn't need to run any
+ * formatter.
+ */
+final class DateLabelCache {
+    private static final int MAX_DAYS_IN_MONTH = 31;
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int MONTH_TITLE_CACHE_SIZE = 36;
+    private static final int YEAR_LABEL_CACHE_SIZE = 32;
+
+    private static Locale sLocale;
+    private static String[] sDayNumbers;
+    // Weekday labels indexed by Calendar.SUNDAY through Calendar.SATURDAY
+    private static String[] sWeekDayLabels;
+    // The weekday labels in display order, indexed by the day the week starts on
+    private static final String[][] sWeekDayLabelsByWeekStart = new String[DAYS_IN_WEEK + 1][];
+    private static SimpleDateFormat sMonthTitleFormat;
+
+    // A small LRU of month titles, keyed by month index (year * 12 + month)
+    private static final int[] sMonthTitleKeys = new int[MONTH_TITLE_CACHE_SIZE];
+    private static final String[] sMonthTitles = new String[MONTH_TITLE_CACHE_SIZE];
+    private static final long[] sMonthTitleLastUse = new long[MONTH_TITLE_CACHE_SIZE];
+    private static long sMonthTitleClock;
+
+    // A small LRU of year labels, so the year list only formats the rows that scroll into view
+    private static final int[] sYearLabelKeys = new int[YEAR_LABEL_CACHE_SIZE];
+    private static final String[] sYearLabels = new String[YEAR_LABEL_CACHE_SIZE];
+    private static final long[] sYearLabelLastUse = new long[YEAR_LABEL_CACHE_SIZE];
+    private static long sYearLabelClock;
+
+    private DateLabelCache() {
+        // Static cache only
+    }
+
+    /**
+     * @return The localized labels of the days 1 through 31, indexed by day - 1
+     */
+    static synchronized String[] getDayNumbers() {
+        ensureLocale();
+        if (sDayNumbers == null) {
+            String[] dayNumbers = new String[MAX_DAYS_IN_MONTH];
+            for (int day = 1; day <= MAX_DAYS_IN_MONTH; day++) {
+                dayNumbers[day - 1] = String.format(sLocale, "%d", day);
+            }
+            sDayNumbers = dayNumbers;
+        }
+        return sDayNumbers;
+    }
+
+    /**
+     * @param weekStart The first day of the week, {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return The 1 or 2 letter labels of the 7 weekdays, in the order in which they are displayed
+     */
+    static synchronized String[] getWeekDayLabels(int weekStart) {
+        ensureLocale();
+        if (sWeekDayLabelsByWeekStart[weekStart] == null) {
+            if (sWeekDayLabels == null) {
+                sWeekDayLabels = new String[DAYS_IN_WEEK + 1];
+                Calendar calendar = Calendar.getInstance();
+                for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+                    calendar.set(Calendar.DAY_OF_WEEK, day);
+                    sWeekDayLabels[day] = createWeekDayLabel(calendar, sLocale);
+                }
+            }
+            String[] labels = new String[DAYS_IN_WEEK];
+            for (int i = 0; i < DAYS_IN_WEEK; i++) {
+                labels[i] = sWeekDayLabels[(i + weekStart - 1) % DAYS_IN_WEEK + 1];
+            }
+            sWeekDayLabelsByWeekStart[weekStart] = labels;
+        }
+        return sWeekDayLabelsByWeekStart[weekStart];
+    }
+
+    /**
+     * @param context The context used to resolve the fallback patterns on older devices
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The localized title of the given month, including the year
+     */
+    static synchronized String getMonthTitle(Context context, int year, int month) {
+        ensureLocale();
+        final int key = DateBounds.getMonthIndex(year, month);
+        int victim = 0;
+        for (int i = 0; i < MONTH_TITLE_CACHE_SIZE; i++) {
+            if (sMonthTitles[i] != null && sMonthTitleKeys[i] == key) {
+                sMonthTitleLastUse[i] = ++sMonthTitleClock;
+                return sMonthTitles[i];
+            }
+            if (sMonthTitleLastUse[i] < sMonthTitleLastUse[victim]) victim = i;
+        }
+
+        if (sMonthTitleFormat == null) {
+            String pattern;
+            if(Build.VERSION.SDK_INT < 18) pattern = context.getResources().getString(R.string.mdtp_date_v1_monthyear);
+            else pattern = DateFormat.getBestDateTimePattern(sLocale, "MMMM yyyy");
+
+            sMonthTitleFormat = new SimpleDateFormat(pattern, sLocale);
+            sMonthTitleFormat.applyLocalizedPattern(pattern);
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(year, month, 1);
+        String title = sMonthTitleFormat.format(calendar.getTime());
+
+        sMonthTitleKeys[victim] = key;
+        sMonthTitles[victim] = title;
+        sMonthTitleLastUse[victim] = ++sMonthTitleClock;
+        return title;
+    }
+
+    /**
+     * @param year The year
+     * @return The localized label of the given year
+     */
+    static synchronized String getYearLabel(int year) {
+        ensureLocale();
+        int victim = 0;
+        for (int i = 0; i < YEAR_LABEL_CACHE_SIZE; i++) {
+            if (sYearLabels[i] != null && sYearLabelKeys[i] == year) {
+                sYearLabelLastUse[i] = ++sYearLabelClock;
+                return sYearLabels[i];
+            }
+            if (sYearLabelLastUse[i] < sYearLabelLastUse[victim]) victim = i;
+        }
+
+        String label = String.format(sLocale, "%d", year);
+        sYearLabelKeys[victim] = year;
+        sYearLabels[victim] = label;
+        sYearLabelLastUse[victim] = ++sYearLabelClock;
+        return label;
+    }
+
+    /**
+     * Return a 1 or 2 letter String for use as a weekday label
+     * @param day The day for which to generate a label
+     * @param locale The locale to generate the label in
+     * @return The weekday label
+     */
+    private static String createWeekDayLabel(Calendar day, Locale locale) {
+        // Localised short version of the string is not available on API < 18
+        if(Build.VERSION.SDK_INT < 18) {
+            String dayName = new SimpleDateFormat("E", locale).format(day.getTime());
+            String dayLabel = dayName.toUpperCase(locale).substring(0, 1);
+
+            // Chinese labels should be fetched right to left
+            if (locale.equals(Locale.CHINA) || locale.equals(Locale.CHINESE) || locale.equals(Locale.SIMPLIFIED_CHINESE) || locale.equals(Locale.TRADITIONAL_CHINESE)) {
+                int len = dayName.length();
+                dayLabel = dayName.substring(len -1, len);
+            }
+
+            // Most hebrew labels should select the second to last character
+            if (locale.getLanguage().equals("he") || locale.getLanguage().equals("iw")) {
+                if(day.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) {
+                    int len = dayName.length();
+                    dayLabel = dayName.substring(len - 2, len - 1);
+                }
+                else {
+                    // I know this is duplication, but it makes the code easier to grok by
+                    // having all hebrew code in the same block
+                    dayLabel = dayName.toUpperCase(locale).substring(0, 1);
+                }
+            }
+
+            // Catalan labels should be two digits in lowercase
+            if (locale.getLanguage().equals("ca"))
+                dayLabel = dayName.toLowerCase().substring(0,2);
+
+            // Correct single character label in Spanish is X
+            if (locale.getLanguage().equals("es") && day.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY)
+                dayLabel = "X";
+
+            return dayLabel;
+        }
+        // Getting the short label is a one liner on API >= 18
+        return new SimpleDateFormat("EEEEE", locale).format(day.getTime());
+    }
+
+    private static void ensureLocale() {
+        Locale locale = Locale.getDefault();
+        if (!locale.equals(sLocale)) {
+            sLocale = locale;
+            sDayNumbers = null;
+            sWeekDayLabels = null;
+            for (int i = 0; i < sWeekDayLabelsByWeekStart.length; i++) {
+                sWeekDayLabelsByWeekStart[i] = null;
+            }
+            sMonthTitleFormat = null;
+            for (int i = 0; i < MONTH_TITLE_CACHE_SIZE; i++) {
+                sMonthTitles[i] = null;
+                sMonthTitleLastUse[i] = 0;
+            }
+            for (int i = 0; i < YEAR_LABEL_CACHE_SIZE; i++) {
+                sYearLabels[i] = null;
+                sYearLabelLastUse[i] = 0;
+            }
+        }
+    }
+}
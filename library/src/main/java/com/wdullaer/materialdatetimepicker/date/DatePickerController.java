@@ -33,9 +33,17 @@ public interface DatePickerController {
 
     MonthAdapter.CalendarDay getSelectedDay();
 
+    int getSelectedEpochDay();
+
+    int getTodayEpochDay();
+
     boolean isThemeDark();
 
     int getAccentColor();
+
+    boolean isMonthRenderCacheEnabled();
+
+    boolean shouldSkipEmptyMonths();
     
     Calendar[] getHighlightedDays();
 
@@ -51,7 +59,23 @@ public interface DatePickerController {
 
     Calendar getEndDate();
 
+    int getStartEpochDay();
+
+    int getEndEpochDay();
+
+    DateBounds getDateBounds();
+
+    SelectableDaySummary getSelectableDaySummary();
+
     boolean isOutOfRange(int year, int month, int day);
 
+    int getSelectableDayMask(int year, int month);
+
+    boolean isHighlighted(int year, int month, int day);
+
+    boolean isAvailabilityPending(int year, int month);
+
+    void prefetchAvailability(int fromMonthIndex, int toMonthIndex);
+
     void tryVibrate();
 }
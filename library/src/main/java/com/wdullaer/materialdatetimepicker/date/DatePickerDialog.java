@@ -47,7 +47,8 @@ import com.wdullaer.materialdatetimepicker.TypefaceHelper;
 import com.wdullaer.materialdatetimepicker.Utils;
 
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Locale;
@@ -58,6 +59,19 @@ import java.util.Locale;
 public class DatePickerDialog extends DialogFragment implements
         OnClickListener, DatePickerController {
 
+    /**
+     * Tie-breaking rule for {@link #findNearestSelectable(int, int)}: prefer the earlier day
+     */
+    public static final int PREFER_EARLIER = 0;
+    /**
+     * Tie-breaking rule for {@link #findNearestSelectable(int, int)}: prefer the later day
+     */
+    public static final int PREFER_LATER = 1;
+    /**
+     * Returned by {@link #findNearestSelectable(int, int)} when no day can be selected
+     */
+    public static final int NO_SELECTABLE_DAY = Integer.MIN_VALUE;
+
     private static final int UNINITIALIZED = -1;
     private static final int MONTH_AND_DAY_VIEW = 0;
     private static final int YEAR_VIEW = 1;
@@ -74,13 +88,26 @@ public class DatePickerDialog extends DialogFragment implements
     private static final String KEY_MIN_DATE = "min_date";
     private static final String KEY_MAX_DATE = "max_date";
     private static final String KEY_HIGHLIGHTED_DAYS = "highlighted_days";
+    private static final String KEY_HIGHLIGHTED_DAYS_OFFSET = "highlighted_days_offset";
     private static final String KEY_SELECTABLE_DAYS = "selectable_days";
+    private static final String KEY_SELECTABLE_DAYS_OFFSET = "selectable_days_offset";
+    private static final String KEY_DISABLED_RANGES = "disabled_ranges";
+    private static final String KEY_DISABLED_DAYS = "disabled_days";
+    private static final String KEY_DISABLED_DAYS_OFFSET = "disabled_days_offset";
     private static final String KEY_THEME_DARK = "theme_dark";
     private static final String KEY_THEME_DARK_CHANGED = "theme_dark_changed";
     private static final String KEY_ACCENT = "accent";
     private static final String KEY_VIBRATE = "vibrate";
     private static final String KEY_DISMISS = "dismiss";
     private static final String KEY_AUTO_DISMISS = "auto_dismiss";
+    private static final String KEY_RENDER_CACHE = "render_cache";
+    private static final String KEY_SKIP_EMPTY_MONTHS = "skip_empty_months";
+
+    // The number of months of which the selectable days are cached
+    private static final int CONSTRAINT_CACHE_MONTHS = 36;
+    // How many months before and after the given day findNearestSelectable asks the day enabled
+    // predicate about, so one search never asks about more months than the predicate's cache keeps
+    private static final int PREDICATE_SEARCH_MONTHS = (PredicateDateConstraint.MAX_MONTHS - 1) / 2;
     private static final String KEY_DEFAULT_VIEW = "default_view";
     private static final String KEY_TITLE = "title";
     private static final String KEY_OK_RESID = "ok_resid";
@@ -99,6 +126,8 @@ public class DatePickerDialog extends DialogFragment implements
     private static SimpleDateFormat DAY_FORMAT = new SimpleDateFormat("dd", Locale.getDefault());
 
     private final Calendar mCalendar = Calendar.getInstance();
+    // Immutable snapshot of mCalendar, null when it needs to be recomputed
+    private MonthAdapter.CalendarDay mSelectedDay;
     private OnDateSetListener mCallBack;
     private HashSet<OnDateChangedListener> mListeners = new HashSet<>();
     private DialogInterface.OnCancelListener mOnCancelListener;
@@ -122,14 +151,56 @@ public class DatePickerDialog extends DialogFragment implements
     private String mTitle;
     private Calendar mMinDate;
     private Calendar mMaxDate;
+    // mMinDate and mMaxDate as epoch days, which can safely be read from other threads
+    private int mMinEpochDay = Integer.MIN_VALUE;
+    private int mMaxEpochDay = Integer.MAX_VALUE;
+    // The highlighted and selectable days as Calendars, only created when they are requested
     private Calendar[] highlightedDays;
     private Calendar[] selectableDays;
+    private DateSet mHighlightedIndex;
+    private DateSet mSelectableIndex;
+    private DateRangeSet mDisabledRanges;
+    private DateSet mDisabledDays;
+    private volatile AvailabilityLoader mAvailabilityLoader;
+    private DateConstraint mDateConstraint;
+    private PredicateDateConstraint mDayEnabledConstraint;
+    private DateConstraintSource mConstraintSource;
+    private LiveDisabledDays mLiveDisabledDays;
+    private final LiveDisabledDays.OnSnapshotChangedListener mOnSnapshotChangedListener = new LiveDisabledDays.OnSnapshotChangedListener() {
+        @Override
+        public void onSnapshotChanged(int[] monthIndices) {
+            onLiveDisabledDaysChanged(monthIndices);
+        }
+    };
+    // All constraints combined, and the cache of its month masks. Replaced whenever a constraint
+    // changes, so they can safely be read from the MonthModelLoader.
+    private volatile DateConstraint mConstraint = DateConstraints.all();
+    private volatile MemoizedDateConstraint mMonthMasks = DateConstraints.memoize(mConstraint, CONSTRAINT_CACHE_MONTHS);
+    // The constraints that are cheap to evaluate for every month, used to count the selectable
+    // days and to skip over empty months when looking for the nearest selectable day. Leaves out
+    // the day enabled predicate, which is only asked about months that are shown or searched.
+    private DateConstraint mSummaryConstraint = mConstraint;
+    private PickerClock mClock;
+    private final PickerClock.OnDayChangedListener mOnDayChangedListener = new PickerClock.OnDayChangedListener() {
+        @Override
+        public void onDayChanged() {
+            if (mDayPickerView != null) mDayPickerView.onTodayChanged();
+        }
+    };
+    // Cached bounds of the picker, null when they need to be recomputed
+    private DateBounds mDateBounds;
+    private Calendar mDefaultStartDate;
+    private Calendar mDefaultEndDate;
+    // Cached count of the selectable days per month, null when it needs to be recomputed
+    private SelectableDaySummary mSelectableDaySummary;
     private boolean mThemeDark = false;
     private boolean mThemeDarkChanged = false;
     private int mAccentColor = -1;
     private boolean mVibrate = true;
     private boolean mDismissOnPause = false;
     private boolean mAutoDismiss = false;
+    private boolean mRenderCacheEnabled = false;
+    private boolean mSkipEmptyMonths = false;
     private int mDefaultView = MONTH_AND_DAY_VIEW;
     private int mOkResid = R.string.mdtp_ok;
     private String mOkString;
@@ -193,6 +264,7 @@ public class DatePickerDialog extends DialogFragment implements
         mCalendar.set(Calendar.YEAR, year);
         mCalendar.set(Calendar.MONTH, monthOfYear);
         mCalendar.set(Calendar.DAY_OF_MONTH, dayOfMonth);
+        mSelectedDay = null;
     }
 
     @Override
@@ -206,6 +278,7 @@ public class DatePickerDialog extends DialogFragment implements
             mCalendar.set(Calendar.YEAR, savedInstanceState.getInt(KEY_SELECTED_YEAR));
             mCalendar.set(Calendar.MONTH, savedInstanceState.getInt(KEY_SELECTED_MONTH));
             mCalendar.set(Calendar.DAY_OF_MONTH, savedInstanceState.getInt(KEY_SELECTED_DAY));
+            mSelectedDay = null;
             mDefaultView = savedInstanceState.getInt(KEY_DEFAULT_VIEW);
         }
     }
@@ -230,14 +303,27 @@ public class DatePickerDialog extends DialogFragment implements
         outState.putInt(KEY_LIST_POSITION, listPosition);
         outState.putSerializable(KEY_MIN_DATE, mMinDate);
         outState.putSerializable(KEY_MAX_DATE, mMaxDate);
-        outState.putSerializable(KEY_HIGHLIGHTED_DAYS, highlightedDays);
-        outState.putSerializable(KEY_SELECTABLE_DAYS, selectableDays);
+        if (mHighlightedIndex != null) {
+            outState.putLongArray(KEY_HIGHLIGHTED_DAYS, mHighlightedIndex.getWords());
+            outState.putInt(KEY_HIGHLIGHTED_DAYS_OFFSET, mHighlightedIndex.getOffset());
+        }
+        if (mSelectableIndex != null) {
+            outState.putLongArray(KEY_SELECTABLE_DAYS, mSelectableIndex.getWords());
+            outState.putInt(KEY_SELECTABLE_DAYS_OFFSET, mSelectableIndex.getOffset());
+        }
+        if (mDisabledRanges != null) outState.putLongArray(KEY_DISABLED_RANGES, mDisabledRanges.toPackedArray());
+        if (mDisabledDays != null) {
+            outState.putLongArray(KEY_DISABLED_DAYS, mDisabledDays.getWords());
+            outState.putInt(KEY_DISABLED_DAYS_OFFSET, mDisabledDays.getOffset());
+        }
         outState.putBoolean(KEY_THEME_DARK, mThemeDark);
         outState.putBoolean(KEY_THEME_DARK_CHANGED, mThemeDarkChanged);
         outState.putInt(KEY_ACCENT, mAccentColor);
         outState.putBoolean(KEY_VIBRATE, mVibrate);
         outState.putBoolean(KEY_DISMISS, mDismissOnPause);
         outState.putBoolean(KEY_AUTO_DISMISS, mAutoDismiss);
+        outState.putBoolean(KEY_RENDER_CACHE, mRenderCacheEnabled);
+        outState.putBoolean(KEY_SKIP_EMPTY_MONTHS, mSkipEmptyMonths);
         outState.putInt(KEY_DEFAULT_VIEW, mDefaultView);
         outState.putString(KEY_TITLE, mTitle);
         outState.putInt(KEY_OK_RESID, mOkResid);
@@ -252,6 +338,7 @@ public class DatePickerDialog extends DialogFragment implements
 
         // All options have been set at this point: round the initial selection if necessary
         setToNearestDate(mCalendar);
+        mSelectedDay = null;
 
         View view = inflater.inflate(R.layout.mdtp_date_picker_dialog, container, false);
 
@@ -275,14 +362,28 @@ public class DatePickerDialog extends DialogFragment implements
             listPositionOffset = savedInstanceState.getInt(KEY_LIST_POSITION_OFFSET);
             mMinDate = (Calendar)savedInstanceState.getSerializable(KEY_MIN_DATE);
             mMaxDate = (Calendar)savedInstanceState.getSerializable(KEY_MAX_DATE);
-            highlightedDays = (Calendar[])savedInstanceState.getSerializable(KEY_HIGHLIGHTED_DAYS);
-            selectableDays = (Calendar[])savedInstanceState.getSerializable(KEY_SELECTABLE_DAYS);
+            long[] highlightedWords = savedInstanceState.getLongArray(KEY_HIGHLIGHTED_DAYS);
+            long[] selectableWords = savedInstanceState.getLongArray(KEY_SELECTABLE_DAYS);
+            mHighlightedIndex = highlightedWords != null ? DateSet.fromWords(
+                    savedInstanceState.getInt(KEY_HIGHLIGHTED_DAYS_OFFSET), highlightedWords) : null;
+            mSelectableIndex = selectableWords != null ? DateSet.fromWords(
+                    savedInstanceState.getInt(KEY_SELECTABLE_DAYS_OFFSET), selectableWords) : null;
+            highlightedDays = null;
+            selectableDays = null;
+            long[] disabledRanges = savedInstanceState.getLongArray(KEY_DISABLED_RANGES);
+            mDisabledRanges = disabledRanges != null ? DateRangeSet.fromPackedArray(disabledRanges) : null;
+            long[] disabledWords = savedInstanceState.getLongArray(KEY_DISABLED_DAYS);
+            mDisabledDays = disabledWords != null ? DateSet.fromWords(
+                    savedInstanceState.getInt(KEY_DISABLED_DAYS_OFFSET), disabledWords) : null;
+            invalidateDateBounds();
             mThemeDark = savedInstanceState.getBoolean(KEY_THEME_DARK);
             mThemeDarkChanged = savedInstanceState.getBoolean(KEY_THEME_DARK_CHANGED);
             mAccentColor = savedInstanceState.getInt(KEY_ACCENT);
             mVibrate = savedInstanceState.getBoolean(KEY_VIBRATE);
             mDismissOnPause = savedInstanceState.getBoolean(KEY_DISMISS);
             mAutoDismiss = savedInstanceState.getBoolean(KEY_AUTO_DISMISS);
+            mRenderCacheEnabled = savedInstanceState.getBoolean(KEY_RENDER_CACHE);
+            mSkipEmptyMonths = savedInstanceState.getBoolean(KEY_SKIP_EMPTY_MONTHS);
             mTitle = savedInstanceState.getString(KEY_TITLE);
             mOkResid = savedInstanceState.getInt(KEY_OK_RESID);
             mOkString = savedInstanceState.getString(KEY_OK_STRING);
@@ -291,6 +392,7 @@ public class DatePickerDialog extends DialogFragment implements
         }
 
         final Activity activity = getActivity();
+        if (mClock == null) mClock = new SystemPickerClock(activity);
         mDayPickerView = new SimpleDayPickerView(activity, this);
         mYearPickerView = new YearPickerView(activity, this);
 
@@ -388,12 +490,16 @@ public class DatePickerDialog extends DialogFragment implements
     public void onResume() {
         super.onResume();
         mHapticFeedbackController.start();
+        mClock.start(mOnDayChangedListener);
+        if (mConstraintSource != null) startConstraintSource();
     }
 
     @Override
     public void onPause() {
         super.onPause();
         mHapticFeedbackController.stop();
+        mClock.stop();
+        if (mConstraintSource != null) stopConstraintSource();
         if(mDismissOnPause) dismiss();
     }
 
@@ -509,6 +615,41 @@ public class DatePickerDialog extends DialogFragment implements
         mAutoDismiss = autoDismiss;
     }
 
+    /**
+     * Set whether the picker should record the drawing of each month and replay it when the month
+     * scrolls back into view unchanged. This trades a bit of memory for cheaper scrolling. It
+     * needs to be set before the dialog is shown.
+     * @param enabled true if months should be cached, false to always draw them. Defaults to false
+     */
+    @SuppressWarnings("unused")
+    public void setMonthRenderCacheEnabled(boolean enabled) {
+        mRenderCacheEnabled = enabled;
+    }
+
+    @Override
+    public boolean isMonthRenderCacheEnabled() {
+        return mRenderCacheEnabled;
+    }
+
+    /**
+     * Set whether months without any selectable day should be left out of the day picker, so
+     * users don't have to scroll past them when the selectable days are sparse. Days loaded by a
+     * {@link DateAvailabilityProvider} are not taken into account.
+     * @param skipEmptyMonths true to hide months without selectable days. Defaults to false
+     */
+    @SuppressWarnings("unused")
+    public void setSkipEmptyMonths(boolean skipEmptyMonths) {
+        mSkipEmptyMonths = skipEmptyMonths;
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    @Override
+    public boolean shouldSkipEmptyMonths() {
+        return mSkipEmptyMonths;
+    }
+
     /**
      * Set whether the dark theme should be used
      * @param themeDark true if the dark theme should be used, false if the default theme should be used
@@ -584,6 +725,7 @@ public class DatePickerDialog extends DialogFragment implements
 
         mMinYear = startYear;
         mMaxYear = endYear;
+        invalidateDateBounds();
         if (mDayPickerView != null) {
             mDayPickerView.onChange();
         }
@@ -597,6 +739,7 @@ public class DatePickerDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setMinDate(Calendar calendar) {
         mMinDate = calendar;
+        invalidateDateBounds();
 
         if (mDayPickerView != null) {
             mDayPickerView.onChange();
@@ -619,6 +762,7 @@ public class DatePickerDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setMaxDate(Calendar calendar) {
         mMaxDate = calendar;
+        invalidateDateBounds();
 
         if (mDayPickerView != null) {
             mDayPickerView.onChange();
@@ -639,9 +783,90 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setHighlightedDays(Calendar[] highlightedDays) {
-        // Sort the array to optimize searching over it later on
-        Arrays.sort(highlightedDays);
-        this.highlightedDays = highlightedDays;
+        setHighlightedDays(DateSet.of(highlightedDays));
+    }
+
+    /**
+     * Sets the days which should be highlighted when the picker is drawn
+     * @param epochDays the days to highlight, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(int[] epochDays) {
+        setHighlightedDays(DateSet.of(epochDays));
+    }
+
+    /**
+     * Sets the days which should be highlighted when the picker is drawn
+     * @param epochDays the days to highlight, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(long[] epochDays) {
+        setHighlightedDays(DateSet.of(epochDays));
+    }
+
+    /**
+     * Highlights every day of the given ranges. Range i runs from startDays[i] up to and including
+     * endDays[i], as the number of days since 1970-01-01.
+     * @param startDays the first day of every range
+     * @param endDays the last day of every range
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(int[] startDays, int[] endDays) {
+        setHighlightedDays(DateSet.ofRanges(startDays, endDays));
+    }
+
+    /**
+     * Sets the days which should be highlighted when the picker is drawn
+     * @param days the days to highlight: bit i stands for the day firstEpochDay + i
+     * @param firstEpochDay the day of bit 0, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(BitSet days, int firstEpochDay) {
+        setHighlightedDays(DateSet.of(days, firstEpochDay));
+    }
+
+    /**
+     * Sets the days which should be highlighted when the picker is drawn
+     * @param highlightedDays the days to highlight, null to remove all highlights
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(DateSet highlightedDays) {
+        mHighlightedIndex = highlightedDays;
+        this.highlightedDays = null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * Highlights a single day, or removes its highlight if it is highlighted already. Only the
+     * month of the day is redrawn.
+     * @param epochDay the day, as the number of days since 1970-01-01
+     * @return true if the day is highlighted now
+     */
+    @SuppressWarnings("unused")
+    public boolean toggleHighlight(int epochDay) {
+        final boolean highlighted = mHighlightedIndex == null || !mHighlightedIndex.contains(epochDay);
+        if (mHighlightedIndex == null) mHighlightedIndex = DateSet.of(new int[]{epochDay});
+        else if (highlighted) mHighlightedIndex = mHighlightedIndex.with(epochDay);
+        else mHighlightedIndex = mHighlightedIndex.without(epochDay);
+        this.highlightedDays = null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onMonthChanged(EpochDays.getMonthIndex(epochDay));
+        }
+        return highlighted;
+    }
+
+    /**
+     * Highlights a single day, or removes its highlight if it is highlighted already
+     * @param day the day
+     * @return true if the day is highlighted now
+     */
+    @SuppressWarnings("unused")
+    public boolean toggleHighlight(Calendar day) {
+        return toggleHighlight(EpochDays.of(day));
     }
 
     /**
@@ -649,29 +874,505 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @Override
     public Calendar[] getHighlightedDays() {
+        if (highlightedDays == null && mHighlightedIndex != null) {
+            highlightedDays = mHighlightedIndex.toCalendars();
+        }
         return highlightedDays;
     }
 
     /**
      * Set's a list of days which are the only valid selections.
-     * Setting this value will take precedence over using setMinDate() and setMaxDate()
+     * A day has to pass all other constraints as well, such as the min and max date.
      * @param selectableDays an Array of Calendar Objects containing the selectable dates
      */
     @SuppressWarnings("unused")
     public void setSelectableDays(Calendar[] selectableDays) {
-        // Sort the array to optimize searching over it later on
-        Arrays.sort(selectableDays);
-        this.selectableDays = selectableDays;
+        setSelectableDays(DateSet.of(selectableDays));
+    }
+
+    /**
+     * Sets the days which are the only valid selections, without creating a Calendar per day.
+     * A day has to pass all other constraints as well, such as the min and max date.
+     * @param epochDays the selectable days, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(int[] epochDays) {
+        setSelectableDays(DateSet.of(epochDays));
+    }
+
+    /**
+     * Sets the days which are the only valid selections, without creating a Calendar per day.
+     * A day has to pass all other constraints as well, such as the min and max date.
+     * @param epochDays the selectable days, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(long[] epochDays) {
+        setSelectableDays(DateSet.of(epochDays));
     }
 
     /**
-     * @return an Array of Calendar objects containing the list with selectable items. null if no restriction is set
+     * Makes every day of the given ranges selectable, and no other days. Range i runs from
+     * startDays[i] up to and including endDays[i], as the number of days since 1970-01-01.
+     * A day has to pass all other constraints as well, such as the min and max date.
+     * @param startDays the first day of every range
+     * @param endDays the last day of every range
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(int[] startDays, int[] endDays) {
+        setSelectableDays(DateSet.ofRanges(startDays, endDays));
+    }
+
+    /**
+     * Sets the days which are the only valid selections, without creating a Calendar per day.
+     * A day has to pass all other constraints as well, such as the min and max date.
+     * @param days the selectable days: bit i stands for the day firstEpochDay + i
+     * @param firstEpochDay the day of bit 0, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(BitSet days, int firstEpochDay) {
+        setSelectableDays(DateSet.of(days, firstEpochDay));
+    }
+
+    /**
+     * Sets the days which are the only valid selections.
+     * A day has to pass all other constraints as well, such as the min and max date.
+     * @param selectableDays the selectable days, null to remove the restriction
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(DateSet selectableDays) {
+        mSelectableIndex = selectableDays;
+        this.selectableDays = null;
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * Makes a single day selectable in addition to the days set by {@link #setSelectableDays}.
+     * Only the month of the day is redrawn, unless the day extends the range of the picker.
+     * If no selectable days have been set every day is selectable already, and the day is only
+     * removed from the disabled days, see {@link #removeDisabledDay(int)}.
+     * @param epochDay the day, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void addSelectableDay(int epochDay) {
+        if (mSelectableIndex == null) {
+            removeDisabledDay(epochDay);
+            return;
+        }
+        onSelectableDaysChanged(mSelectableIndex.with(epochDay), epochDay);
+    }
+
+    /**
+     * Makes a single day selectable in addition to the days set by {@link #setSelectableDays}
+     * @param day the day
+     */
+    @SuppressWarnings("unused")
+    public void addSelectableDay(Calendar day) {
+        addSelectableDay(EpochDays.of(day));
+    }
+
+    /**
+     * Removes a single day from the days set by {@link #setSelectableDays}, for instance because
+     * it has been booked in the meantime. Only the month of the day is redrawn, unless the day
+     * was the first or last day of the range of the picker.
+     * If no selectable days have been set, the day is disabled instead, see
+     * {@link #addDisabledDay(int)}.
+     * @param epochDay the day, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void removeSelectableDay(int epochDay) {
+        if (mSelectableIndex == null) {
+            addDisabledDay(epochDay);
+            return;
+        }
+        onSelectableDaysChanged(mSelectableIndex.without(epochDay), epochDay);
+    }
+
+    /**
+     * Removes a single day from the days set by {@link #setSelectableDays}
+     * @param day the day
+     */
+    @SuppressWarnings("unused")
+    public void removeSelectableDay(Calendar day) {
+        removeSelectableDay(EpochDays.of(day));
+    }
+
+    private void onSelectableDaysChanged(DateSet selectableDays, int epochDay) {
+        if (selectableDays == mSelectableIndex) return;
+        final DateBounds oldBounds = getDateBounds();
+        final SelectableDaySummary oldSummary = shouldSkipEmptyMonths() ? getSelectableDaySummary() : null;
+        mSelectableIndex = selectableDays;
+        this.selectableDays = null;
+        invalidateDateBounds();
+
+        if (mDayPickerView == null) return;
+        final DateBounds bounds = getDateBounds();
+        if (bounds.getFirstMonthIndex() != oldBounds.getFirstMonthIndex()
+                || bounds.getLastMonthIndex() != oldBounds.getLastMonthIndex()
+                || bounds.getMinYear() != oldBounds.getMinYear()
+                || bounds.getMaxYear() != oldBounds.getMaxYear()) {
+            // The months shown by the picker changed
+            mDayPickerView.onChange();
+        } else {
+            mDayPickerView.onMonthsChanged(new int[]{EpochDays.getMonthIndex(epochDay)}, oldSummary);
+        }
+    }
+
+    /**
+     * @return an Array of Calendar objects containing the list with selectable items, in
+     * chronological order. null if no restriction is set
      */
     @Override
     public Calendar[] getSelectableDays() {
+        if (selectableDays == null && mSelectableIndex != null) {
+            selectableDays = mSelectableIndex.toCalendars();
+        }
         return selectableDays;
     }
 
+    /**
+     * Sets a list of date ranges which can't be selected. Range i runs from startDays[i] up to
+     * and including endDays[i]. The ranges can be combined with all other constraints and may
+     * be passed in any order.
+     * @param startDays an Array of Calendar Objects containing the first day of each range
+     * @param endDays an Array of Calendar Objects containing the last day of each range
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledRanges(Calendar[] startDays, Calendar[] endDays) {
+        setDisabledRanges(DateRangeSet.of(startDays, endDays));
+    }
+
+    /**
+     * Sets a list of date ranges which can't be selected
+     * @param disabledRanges the ranges to disable, null to remove the restriction
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledRanges(DateRangeSet disabledRanges) {
+        mDisabledRanges = disabledRanges;
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * @return The date ranges which can't be selected. null if no ranges have been set
+     */
+    @SuppressWarnings("unused")
+    public DateRangeSet getDisabledRanges() {
+        return mDisabledRanges;
+    }
+
+    /**
+     * Sets individual days which can't be selected, in addition to the disabled ranges
+     * @param disabledDays the days to disable, null to remove the restriction
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledDays(DateSet disabledDays) {
+        mDisabledDays = disabledDays;
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * @return The individual days which can't be selected. null if no days have been disabled
+     */
+    @SuppressWarnings("unused")
+    public DateSet getDisabledDays() {
+        return mDisabledDays;
+    }
+
+    /**
+     * Disables a single day, for instance because it has been booked in the meantime. Only the
+     * month of the day is redrawn.
+     * @param epochDay the day, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void addDisabledDay(int epochDay) {
+        onDisabledDaysChanged(mDisabledDays == null
+                ? DateSet.of(new int[]{epochDay}) : mDisabledDays.with(epochDay), epochDay);
+    }
+
+    /**
+     * Disables a single day
+     * @param day the day
+     */
+    @SuppressWarnings("unused")
+    public void addDisabledDay(Calendar day) {
+        addDisabledDay(EpochDays.of(day));
+    }
+
+    /**
+     * Enables a single day that was disabled with {@link #addDisabledDay(int)} or
+     * {@link #setDisabledDays(DateSet)}. The day still has to pass all other constraints. Only
+     * the month of the day is redrawn.
+     * @param epochDay the day, as the number of days since 1970-01-01
+     */
+    @SuppressWarnings("unused")
+    public void removeDisabledDay(int epochDay) {
+        if (mDisabledDays == null) return;
+        onDisabledDaysChanged(mDisabledDays.without(epochDay), epochDay);
+    }
+
+    /**
+     * Enables a single day that was disabled with {@link #addDisabledDay(Calendar)}
+     * @param day the day
+     */
+    @SuppressWarnings("unused")
+    public void removeDisabledDay(Calendar day) {
+        removeDisabledDay(EpochDays.of(day));
+    }
+
+    private void onDisabledDaysChanged(DateSet disabledDays, int epochDay) {
+        if (disabledDays == mDisabledDays) return;
+        final SelectableDaySummary oldSummary = shouldSkipEmptyMonths() ? getSelectableDaySummary() : null;
+        mDisabledDays = disabledDays;
+        // The disabled days don't change the bounds, only the months they are in
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onMonthsChanged(new int[]{EpochDays.getMonthIndex(epochDay)}, oldSummary);
+        }
+    }
+
+    /**
+     * Sets a constraint that decides which days can be selected, see {@link DateConstraints} for
+     * the constraints that are available and how to combine them. A day has to pass this
+     * constraint, as well as the min and max date, the selectable days and the disabled ranges.
+     *
+     * The constraint is evaluated a month at a time and the results of recently shown months
+     * are cached. Like the listeners, the constraint is not retained when the dialog is
+     * recreated, so it has to be set again in onResume.
+     * @param constraint The constraint, null to remove it
+     */
+    @SuppressWarnings("unused")
+    public void setDateConstraint(DateConstraint constraint) {
+        mDateConstraint = constraint;
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * @return The constraint set by {@link #setDateConstraint(DateConstraint)}, null if it has not been set
+     */
+    @SuppressWarnings("unused")
+    public DateConstraint getDateConstraint() {
+        return mDateConstraint;
+    }
+
+    /**
+     * Sets a callback that decides per day whether it can be selected. A day has to pass the
+     * predicate as well as all other constraints.
+     *
+     * The predicate is asked about every day of a month the first time the month is needed, and
+     * the answers are kept until {@link #invalidateConstraints(int, int)} or
+     * {@link #invalidateConstraints()} is called, so it is called at most once per day no matter
+     * how often the picker redraws. The predicate is only asked about the months the picker shows
+     * and, when looking for the nearest selectable day, about the months within five years of the
+     * given day, so it isn't taken into account when graying out years or skipping empty months,
+     * and a day further away than that is never found. Like the
+     * listeners, the predicate is not retained when the dialog is recreated, so it has to be set
+     * again in onResume.
+     * @param predicate The predicate, null to remove it
+     */
+    @SuppressWarnings("unused")
+    public void setDayEnabledPredicate(DayEnabledPredicate predicate) {
+        mDayEnabledConstraint = predicate == null ? null : new PredicateDateConstraint(predicate);
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * @return The predicate set by {@link #setDayEnabledPredicate(DayEnabledPredicate)}, null if it has not been set
+     */
+    @SuppressWarnings("unused")
+    public DayEnabledPredicate getDayEnabledPredicate() {
+        return mDayEnabledConstraint == null ? null : mDayEnabledConstraint.getPredicate();
+    }
+
+    /**
+     * Asks the {@link DayEnabledPredicate} and the date constraint about the given month again,
+     * because the days that can be selected in it changed. Only that month is redrawn.
+     *
+     * If the constraint passed to {@link #setDateConstraint(DateConstraint)} is a
+     * {@link MemoizedDateConstraint}, such as the result of {@link DateRules#compile}, the month
+     * is invalidated in it as well. A memoized constraint nested inside another constraint has
+     * to be invalidated by the caller before calling this method.
+     * @param year The year
+     * @param month The month (0-11)
+     */
+    @SuppressWarnings("unused")
+    public void invalidateConstraints(int year, int month) {
+        final SelectableDaySummary oldSummary = shouldSkipEmptyMonths() ? getSelectableDaySummary() : null;
+        if (mDayEnabledConstraint != null) mDayEnabledConstraint.invalidate(year, month);
+        if (mDateConstraint instanceof MemoizedDateConstraint) {
+            ((MemoizedDateConstraint) mDateConstraint).invalidate(year, month);
+        }
+        mMonthMasks.invalidate(year, month);
+        mSelectableDaySummary = null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onMonthsChanged(new int[]{DateBounds.getMonthIndex(year, month)}, oldSummary);
+        }
+    }
+
+    /**
+     * Asks the {@link DayEnabledPredicate} and the date constraint about every month again,
+     * because the days that can be selected changed all over the picker. A memoized date
+     * constraint is invalidated as described in {@link #invalidateConstraints(int, int)}.
+     */
+    @SuppressWarnings("unused")
+    public void invalidateConstraints() {
+        if (mDayEnabledConstraint != null) mDayEnabledConstraint.invalidate();
+        if (mDateConstraint instanceof MemoizedDateConstraint) {
+            ((MemoizedDateConstraint) mDateConstraint).invalidate();
+        }
+        mMonthMasks.invalidate();
+        mSelectableDaySummary = null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * Sets a source of days that can't be selected and that change while the picker is open.
+     * The source reports the days that changed, which are applied at most once per frame, and
+     * only the months with changed days are redrawn. A day has to pass all other constraints as
+     * well.
+     *
+     * The source is started when the dialog is resumed and stopped when it is paused. Like the
+     * listeners, it is not retained when the dialog is recreated, so it has to be set again in
+     * onResume.
+     * @param source The source, null to remove it
+     */
+    @SuppressWarnings("unused")
+    public void setConstraintSource(DateConstraintSource source) {
+        if (mConstraintSource != null && isResumed()) stopConstraintSource();
+        mConstraintSource = source;
+        mLiveDisabledDays = source == null ? null : new LiveDisabledDays(mOnSnapshotChangedListener);
+        if (mConstraintSource != null && isResumed()) startConstraintSource();
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    /**
+     * @return The source set by {@link #setConstraintSource(DateConstraintSource)}, null if it has not been set
+     */
+    @SuppressWarnings("unused")
+    public DateConstraintSource getConstraintSource() {
+        return mConstraintSource;
+    }
+
+    private void startConstraintSource() {
+        mLiveDisabledDays.start();
+        mConstraintSource.start(mLiveDisabledDays);
+    }
+
+    private void stopConstraintSource() {
+        mConstraintSource.stop();
+        mLiveDisabledDays.stop();
+    }
+
+    /**
+     * Publishes the new disabled days of the constraint source and redraws the months in which
+     * they changed. Called on the main thread, at most once per frame.
+     */
+    private void onLiveDisabledDaysChanged(int[] monthIndices) {
+        final SelectableDaySummary oldSummary = shouldSkipEmptyMonths() ? getSelectableDaySummary() : null;
+        invalidateDateBounds();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onMonthsChanged(monthIndices, oldSummary);
+        }
+    }
+
+    /**
+     * Sets a provider that loads the days that can be selected one month at a time on a background
+     * thread. Only the months that are about to be shown are loaded, so the dialog opens
+     * immediately regardless of the size of the range. Days are only selectable once their month
+     * has been loaded, and only if they also pass all other constraints.
+     *
+     * Like the listeners, the provider is not retained when the dialog is recreated, so it has to
+     * be set again in onResume.
+     * @param provider The provider, null to remove it
+     */
+    @SuppressWarnings("unused")
+    public void setAvailabilityProvider(DateAvailabilityProvider provider) {
+        if (mAvailabilityLoader != null) mAvailabilityLoader.shutdown();
+        mAvailabilityLoader = provider == null ? null : new AvailabilityLoader(provider,
+                new AvailabilityLoader.OnAvailabilityLoadedListener() {
+                    @Override
+                    public void onAvailabilityLoaded(int monthIndex) {
+                        if (mDayPickerView != null) mDayPickerView.onMonthChanged(monthIndex);
+                    }
+                });
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+    }
+
+    @Override
+    public boolean isAvailabilityPending(int year, int month) {
+        final AvailabilityLoader loader = mAvailabilityLoader;
+        if (loader == null) return false;
+        final int monthIndex = DateBounds.getMonthIndex(year, month);
+        if (loader.isLoaded(monthIndex)) return false;
+        loader.request(monthIndex);
+        return true;
+    }
+
+    @Override
+    public void prefetchAvailability(int fromMonthIndex, int toMonthIndex) {
+        final AvailabilityLoader loader = mAvailabilityLoader;
+        if (loader == null) return;
+        final DateBounds bounds = getDateBounds();
+        final int step = fromMonthIndex <= toMonthIndex ? 1 : -1;
+        // The most recent request is loaded first, so request the nearest month last
+        for (int i = toMonthIndex; i != fromMonthIndex - step; i -= step) {
+            if (i >= bounds.getFirstMonthIndex() && i <= bounds.getLastMonthIndex()) loader.request(i);
+        }
+    }
+
+    /**
+     * Sets the clock the picker uses to determine which day is today. By default the system
+     * clock is used. A clock that always returns the same day makes the picker render the same
+     * regardless of the current date, which is useful in tests.
+     *
+     * Like the listeners, the clock is not retained when the dialog is recreated, so it has to
+     * be set again in onResume.
+     * @param clock The clock, null to use the system clock
+     */
+    @SuppressWarnings("unused")
+    public void setClock(PickerClock clock) {
+        final boolean started = mClock != null && isResumed();
+        if (started) mClock.stop();
+        mClock = clock;
+        if (mClock == null && getActivity() != null) mClock = new SystemPickerClock(getActivity());
+        if (started) mClock.start(mOnDayChangedListener);
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onTodayChanged();
+        }
+    }
+
     /**
      * Set a title to be displayed instead of the weekday
      * @param title String - The title to be displayed
@@ -760,6 +1461,7 @@ public class DatePickerDialog extends DialogFragment implements
     public void onYearSelected(int year) {
         mCalendar.set(Calendar.YEAR, year);
         adjustDayInMonthIfNeeded(mCalendar);
+        mSelectedDay = null;
         updatePickers();
         setCurrentView(MONTH_AND_DAY_VIEW);
         updateDisplay(true);
@@ -770,6 +1472,7 @@ public class DatePickerDialog extends DialogFragment implements
         mCalendar.set(Calendar.YEAR, year);
         mCalendar.set(Calendar.MONTH, month);
         mCalendar.set(Calendar.DAY_OF_MONTH, day);
+        mSelectedDay = null;
         updatePickers();
         updateDisplay(true);
         if (mAutoDismiss) {
@@ -785,176 +1488,304 @@ public class DatePickerDialog extends DialogFragment implements
 
     @Override
     public MonthAdapter.CalendarDay getSelectedDay() {
-        return new MonthAdapter.CalendarDay(mCalendar);
+        if (mSelectedDay == null) mSelectedDay = new MonthAdapter.CalendarDay(mCalendar);
+        return mSelectedDay;
     }
 
     @Override
-    public Calendar getStartDate() {
-        if (selectableDays != null) return selectableDays[0];
-        if (mMinDate != null) return mMinDate;
-        Calendar output = Calendar.getInstance();
-        output.set(Calendar.YEAR, mMinYear);
-        output.set(Calendar.DAY_OF_MONTH, 1);
-        output.set(Calendar.MONTH, Calendar.JANUARY);
-        return output;
+    public int getSelectedEpochDay() {
+        return getSelectedDay().toEpochDay();
     }
 
+    /**
+     * @return The epoch day of today, as reported by the clock of this picker
+     */
     @Override
-    public Calendar getEndDate() {
-        if (selectableDays != null) return selectableDays[selectableDays.length-1];
-        if (mMaxDate != null) return mMaxDate;
-        Calendar output = Calendar.getInstance();
-        output.set(Calendar.YEAR, mMaxYear);
-        output.set(Calendar.DAY_OF_MONTH, 31);
-        output.set(Calendar.MONTH, Calendar.DECEMBER);
-        return output;
+    public int getTodayEpochDay() {
+        return mClock.getTodayEpochDay();
     }
 
     @Override
-    public int getMinYear() {
-        if (selectableDays != null) return selectableDays[0].get(Calendar.YEAR);
-        // Ensure no years can be selected outside of the given minimum date
-        return mMinDate != null && mMinDate.get(Calendar.YEAR) > mMinYear ? mMinDate.get(Calendar.YEAR) : mMinYear;
+    public Calendar getStartDate() {
+        if (mDefaultStartDate == null) {
+            mDefaultStartDate = Calendar.getInstance();
+            EpochDays.toCalendar(getDateBounds().getStartEpochDay(), mDefaultStartDate);
+        }
+        return mDefaultStartDate;
     }
 
     @Override
-    public int getMaxYear() {
-        if (selectableDays != null) return selectableDays[selectableDays.length-1].get(Calendar.YEAR);
-        // Ensure no years can be selected outside of the given maximum date
-        return mMaxDate != null && mMaxDate.get(Calendar.YEAR) < mMaxYear ? mMaxDate.get(Calendar.YEAR) : mMaxYear;
+    public Calendar getEndDate() {
+        if (mDefaultEndDate == null) {
+            mDefaultEndDate = Calendar.getInstance();
+            EpochDays.toCalendar(getDateBounds().getEndEpochDay(), mDefaultEndDate);
+        }
+        return mDefaultEndDate;
     }
 
     /**
-     * @return true if the specified year/month/day are within the selectable days or the range set by minDate and maxDate.
-     * If one or either have not been set, they are considered as Integer.MIN_VALUE and
-     * Integer.MAX_VALUE.
+     * @return The bounds of this DatePicker. They are only recomputed when the year range,
+     * the min or max date, or the selectable days change. The min and max date and the
+     * selectable days narrow each other down; the year range is only used on the sides
+     * where none of them sets a limit.
      */
     @Override
-    public boolean isOutOfRange(int year, int month, int day) {
-        if (selectableDays != null) {
-            return !isSelectable(year, month, day);
+    public DateBounds getDateBounds() {
+        if (mDateBounds == null) {
+            int start = mMinEpochDay;
+            int end = mMaxEpochDay;
+            // Without any selectable day every day is disabled, and the other limits apply
+            final boolean narrowed = mSelectableIndex != null && !mSelectableIndex.isEmpty();
+            if (narrowed) {
+                start = Math.max(start, mSelectableIndex.getFirst());
+                end = Math.min(end, mSelectableIndex.getLast());
+            }
+            if (start == Integer.MIN_VALUE) start = EpochDays.of(mMinYear, Calendar.JANUARY, 1);
+            if (end == Integer.MAX_VALUE) end = EpochDays.of(mMaxYear, Calendar.DECEMBER, 31);
+            // Constraints that exclude each other still show a single month without selectable days
+            if (end < start) end = start;
+
+            // Ensure no years can be selected outside of the given minimum and maximum date
+            int minYear = narrowed ? EpochDays.getYear(start) : mMinYear;
+            int maxYear = narrowed ? EpochDays.getYear(end) : mMaxYear;
+            if (mMinDate != null) minYear = Math.max(minYear, EpochDays.getYear(mMinEpochDay));
+            if (mMaxDate != null) maxYear = Math.min(maxYear, EpochDays.getYear(mMaxEpochDay));
+            mDateBounds = new DateBounds(start, end, minYear, Math.max(minYear, maxYear));
         }
+        return mDateBounds;
+    }
 
-        if (isBeforeMin(year, month, day)) {
-            return true;
+    /**
+     * Drops everything derived from the constraints and combines the constraints again. Call
+     * this whenever one of the constraints changes.
+     */
+    private void invalidateDateBounds() {
+        mMinEpochDay = mMinDate != null ? EpochDays.of(mMinDate) : Integer.MIN_VALUE;
+        mMaxEpochDay = mMaxDate != null ? EpochDays.of(mMaxDate) : Integer.MAX_VALUE;
+        mDateBounds = null;
+        mDefaultStartDate = null;
+        mDefaultEndDate = null;
+        mSelectableDaySummary = null;
+
+        ArrayList<DateConstraint> constraints = new ArrayList<>();
+        if (mMinDate != null || mMaxDate != null) {
+            constraints.add(DateConstraints.between(mMinEpochDay, mMaxEpochDay));
         }
-        else if (isAfterMax(year, month, day)) {
-            return true;
+        if (mSelectableIndex != null) constraints.add(DateConstraints.days(mSelectableIndex));
+        if (mDisabledRanges != null) constraints.add(DateConstraints.not(DateConstraints.ranges(mDisabledRanges)));
+        if (mDisabledDays != null && !mDisabledDays.isEmpty()) {
+            constraints.add(DateConstraints.not(DateConstraints.days(mDisabledDays)));
         }
-
-        return false;
+        if (mDateConstraint != null) constraints.add(mDateConstraint);
+        if (mLiveDisabledDays != null && !mLiveDisabledDays.getSnapshot().isEmpty()) {
+            constraints.add(DateConstraints.not(DateConstraints.days(mLiveDisabledDays.getSnapshot())));
+        }
+        mSummaryConstraint = combine(constraints);
+        if (mDayEnabledConstraint != null) constraints.add(mDayEnabledConstraint);
+        final DateConstraint constraint = combine(constraints);
+        mConstraint = constraint;
+        mMonthMasks = DateConstraints.memoize(constraint, CONSTRAINT_CACHE_MONTHS);
     }
 
-    @SuppressWarnings("unused")
-    public boolean isOutOfRange(Calendar calendar) {
-        return isOutOfRange(
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
-        );
+    private static DateConstraint combine(ArrayList<DateConstraint> constraints) {
+        if (constraints.isEmpty()) return DateConstraints.all();
+        if (constraints.size() == 1) return constraints.get(0);
+        return DateConstraints.intersection(constraints.toArray(new DateConstraint[constraints.size()]));
     }
 
-    private boolean isSelectable(int year, int month, int day) {
-        for (Calendar c : selectableDays) {
-            if(year < c.get(Calendar.YEAR)) break;
-            if(year > c.get(Calendar.YEAR)) continue;
-            if(month < c.get(Calendar.MONTH)) break;
-            if(month > c.get(Calendar.MONTH)) continue;
-            if(day < c.get(Calendar.DAY_OF_MONTH)) break;
-            if(day > c.get(Calendar.DAY_OF_MONTH)) continue;
-            return true;
+    /**
+     * @return The number of selectable days per month and per year under every constraint but
+     * the day enabled predicate. Counts are computed when they are first needed after the
+     * constraints changed.
+     */
+    @Override
+    public SelectableDaySummary getSelectableDaySummary() {
+        if (mSelectableDaySummary == null) {
+            mSelectableDaySummary = SelectableDaySummary.compute(getDateBounds(), mSummaryConstraint);
         }
-        return false;
+        return mSelectableDaySummary;
     }
 
-    private boolean isBeforeMin(int year, int month, int day) {
-        if (mMinDate == null) {
-            return false;
-        }
+    @Override
+    public int getStartEpochDay() {
+        return getDateBounds().getStartEpochDay();
+    }
 
-        if (year < mMinDate.get(Calendar.YEAR)) {
-            return true;
-        } else if (year > mMinDate.get(Calendar.YEAR)) {
-            return false;
-        }
+    @Override
+    public int getEndEpochDay() {
+        return getDateBounds().getEndEpochDay();
+    }
 
-        if (month < mMinDate.get(Calendar.MONTH)) {
-            return true;
-        } else if (month > mMinDate.get(Calendar.MONTH)) {
-            return false;
-        }
+    @Override
+    public int getMinYear() {
+        return getDateBounds().getMinYear();
+    }
 
-        if (day < mMinDate.get(Calendar.DAY_OF_MONTH)) {
-            return true;
-        } else {
-            return false;
-        }
+    @Override
+    public int getMaxYear() {
+        return getDateBounds().getMaxYear();
+    }
+
+    /**
+     * @return true if the specified year/month/day can't be selected: it is before the min date,
+     * after the max date, not one of the selectable days, in one of the disabled ranges, not
+     * allowed by the date constraint or the day enabled predicate, disabled by the constraint
+     * source, or not available according to the availability provider
+     */
+    @Override
+    public boolean isOutOfRange(int year, int month, int day) {
+        return (getSelectableDayMask(year, month) & (1 << (day - 1))) == 0;
+    }
+
+    /**
+     * @return A mask in which bit day - 1 is set for every day of the given month that can be
+     * selected. The masks of recently used months are cached, so this is cheap to call from
+     * any thread.
+     */
+    @Override
+    public int getSelectableDayMask(int year, int month) {
+        int mask = mMonthMasks.getMonthMask(year, month);
+        final AvailabilityLoader loader = mAvailabilityLoader;
+        if (loader != null) mask &= loader.getAvailableDays(DateBounds.getMonthIndex(year, month));
+        return mask;
     }
 
-    private boolean isBeforeMin(Calendar calendar) {
-        return isBeforeMin(
+    @SuppressWarnings("unused")
+    public boolean isOutOfRange(Calendar calendar) {
+        return isOutOfRange(
                 calendar.get(Calendar.YEAR),
                 calendar.get(Calendar.MONTH),
                 calendar.get(Calendar.DAY_OF_MONTH)
         );
     }
 
-    private boolean isAfterMax(int year, int month, int day) {
-        if (mMaxDate == null) {
-            return false;
-        }
+    /**
+     * @return true if the specified year/month/day is one of the highlighted days
+     */
+    @Override
+    public boolean isHighlighted(int year, int month, int day) {
+        return mHighlightedIndex != null && mHighlightedIndex.contains(year, month, day);
+    }
 
-        if (year > mMaxDate.get(Calendar.YEAR)) {
-            return true;
-        } else if (year < mMaxDate.get(Calendar.YEAR)) {
-            return false;
+    private void setToNearestDate(Calendar calendar) {
+        final int nearest = findNearestSelectable(EpochDays.of(calendar), PREFER_EARLIER);
+        if (nearest != NO_SELECTABLE_DAY) {
+            EpochDays.toCalendar(nearest, calendar);
         }
+    }
 
-        if (month > mMaxDate.get(Calendar.MONTH)) {
-            return true;
-        } else if (month < mMaxDate.get(Calendar.MONTH)) {
-            return false;
-        }
+    /**
+     * Finds the selectable day closest to the given day, taking the min and max date, the
+     * selectable days, the disabled ranges and days, the {@link DateConstraint}, the days
+     * reported by the {@link DateConstraintSource} so far and the {@link DayEnabledPredicate}
+     * into account. The availability of a {@link DateAvailabilityProvider} is not taken into
+     * account, as it may not have been loaded.
+     *
+     * Skipping over unselectable days never looks at them one by one: the constraints are
+     * searched a month at a time. The search doesn't go past the bounds of the picker. It may
+     * call the predicate, on the calling thread, for the months within five years of the given
+     * day in which the other constraints leave a day to select.
+     * @param day The day to start from
+     * @param tieBreak {@link #PREFER_EARLIER} or {@link #PREFER_LATER}: which day to return when
+     *                 the closest earlier and later day are equally far away
+     * @return A new Calendar set to the closest selectable day, with the time of day of the given
+     * day, or null if no day can be selected
+     */
+    @SuppressWarnings("unused")
+    public Calendar findNearestSelectable(Calendar day, int tieBreak) {
+        final int nearest = findNearestSelectable(EpochDays.of(day), tieBreak);
+        if (nearest == NO_SELECTABLE_DAY) return null;
+        Calendar result = (Calendar) day.clone();
+        EpochDays.toCalendar(nearest, result);
+        return result;
+    }
 
-        if (day > mMaxDate.get(Calendar.DAY_OF_MONTH)) {
-            return true;
-        } else {
-            return false;
+    /**
+     * Finds the selectable day closest to the given day, see {@link #findNearestSelectable(Calendar, int)}
+     * @param epochDay The day to start from, as the number of days since 1970-01-01
+     * @param tieBreak {@link #PREFER_EARLIER} or {@link #PREFER_LATER}
+     * @return The closest selectable day as an epoch day, or {@link #NO_SELECTABLE_DAY}
+     */
+    public int findNearestSelectable(int epochDay, int tieBreak) {
+        if (tieBreak != PREFER_EARLIER && tieBreak != PREFER_LATER) {
+            throw new IllegalArgumentException("tieBreak must be PREFER_EARLIER or PREFER_LATER");
         }
-    }
+        final int next = findNextSelectable(epochDay);
+        if (next == epochDay) return epochDay;
+        final int previous = findPreviousSelectable(epochDay);
 
-    private boolean isAfterMax(Calendar calendar) {
-        return isAfterMax(
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
-        );
+        final long distanceToPrevious = previous == Integer.MIN_VALUE ? Long.MAX_VALUE : (long) epochDay - previous;
+        final long distanceToNext = next == Integer.MAX_VALUE ? Long.MAX_VALUE : (long) next - epochDay;
+        if (distanceToPrevious == Long.MAX_VALUE && distanceToNext == Long.MAX_VALUE) return NO_SELECTABLE_DAY;
+        if (distanceToPrevious < distanceToNext) return previous;
+        if (distanceToNext < distanceToPrevious) return next;
+        return tieBreak == PREFER_EARLIER ? previous : next;
     }
 
-    private void setToNearestDate(Calendar calendar) {
-        if(selectableDays != null) {
-            long distance = Long.MAX_VALUE;
-            Calendar currentBest = calendar;
-            for (Calendar c : selectableDays) {
-                long newDistance = Math.abs(calendar.getTimeInMillis() - c.getTimeInMillis());
-                if(newDistance < distance) {
-                    distance = newDistance;
-                    currentBest = c;
-                }
-                else break;
+    /**
+     * @return The first selectable day on or after the given day, or Integer.MAX_VALUE
+     */
+    private int findNextSelectable(int epochDay) {
+        final DateConstraint constraint = mSummaryConstraint;
+        final PredicateDateConstraint predicate = mDayEnabledConstraint;
+        final int limit = Math.max(epochDay, getDateBounds().getEndEpochDay());
+        int year = EpochDays.getYear(epochDay);
+        int month = EpochDays.getMonth(epochDay);
+        int first = EpochDays.of(year, month, 1);
+        int mask = constraint.getMonthMask(year, month) & (-1 << (epochDay - first));
+        int searchedMonths = 0;
+        while (true) {
+            mask &= DateConstraints.fullMonthMask(year, month);
+            if (mask != 0 && predicate != null) {
+                // Don't ask the predicate about more months than it keeps
+                if (searchedMonths > PREDICATE_SEARCH_MONTHS) return Integer.MAX_VALUE;
+                mask &= predicate.getMonthMask(year, month);
             }
-            calendar.setTimeInMillis(currentBest.getTimeInMillis());
-            return;
-        }
-
-        if(isBeforeMin(calendar)) {
-            calendar.setTimeInMillis(mMinDate.getTimeInMillis());
-            return;
+            if (mask != 0) {
+                final int day = first + Integer.numberOfTrailingZeros(mask);
+                return day <= limit ? day : Integer.MAX_VALUE;
+            }
+            first += EpochDays.getDaysInMonth(year, month);
+            if (++month > Calendar.DECEMBER) {
+                month = Calendar.JANUARY;
+                year++;
+            }
+            searchedMonths++;
+            if (first > limit) return Integer.MAX_VALUE;
+            mask = constraint.getMonthMask(year, month);
         }
+    }
 
-        if(isAfterMax(calendar)) {
-            calendar.setTimeInMillis(mMaxDate.getTimeInMillis());
-            return;
+    /**
+     * @return The last selectable day on or before the given day, or Integer.MIN_VALUE
+     */
+    private int findPreviousSelectable(int epochDay) {
+        final DateConstraint constraint = mSummaryConstraint;
+        final PredicateDateConstraint predicate = mDayEnabledConstraint;
+        final int limit = Math.min(epochDay, getDateBounds().getStartEpochDay());
+        int year = EpochDays.getYear(epochDay);
+        int month = EpochDays.getMonth(epochDay);
+        int first = EpochDays.of(year, month, 1);
+        int mask = constraint.getMonthMask(year, month) & DateConstraints.bits(0, epochDay - first);
+        int searchedMonths = 0;
+        while (true) {
+            mask &= DateConstraints.fullMonthMask(year, month);
+            if (mask != 0 && predicate != null) {
+                if (searchedMonths > PREDICATE_SEARCH_MONTHS) return Integer.MIN_VALUE;
+                mask &= predicate.getMonthMask(year, month);
+            }
+            if (mask != 0) {
+                final int day = first + 31 - Integer.numberOfLeadingZeros(mask);
+                return day >= limit ? day : Integer.MIN_VALUE;
+            }
+            if (first <= limit) return Integer.MIN_VALUE;
+            if (--month < Calendar.JANUARY) {
+                month = Calendar.DECEMBER;
+                year--;
+            }
+            searchedMonths++;
+            first -= EpochDays.getDaysInMonth(year, month);
+            mask = constraint.getMonthMask(year, month);
         }
     }
 
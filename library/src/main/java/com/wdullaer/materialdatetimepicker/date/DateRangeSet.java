@@ -0,0 +1,166 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * A set of disjoint, inclusive date ranges. Each range is stored as its start and end epoch day
+ * packed in a single long, sorted by start day. Lookups use a binary search, so both the memory
+ * use and the lookup cost depend on the number of ranges rather than the number of days they
+ * cover.
+ */
+public final class DateRangeSet {
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private final long[] mRanges;
+
+    private DateRangeSet(long[] ranges) {
+        mRanges = ranges;
+    }
+
+    /**
+     * Builds a set of ranges from two arrays of the same length. Range i runs from startDays[i]
+     * to endDays[i], both inclusive. Ranges may be passed in any order and may overlap.
+     * @param startDays The first day of each range
+     * @param endDays The last day of each range
+     * @return A new DateRangeSet
+     */
+    public static DateRangeSet of(Calendar[] startDays, Calendar[] endDays) {
+        if (startDays.length != endDays.length) {
+            throw new IllegalArgumentException("Every range needs both a start and an end day");
+        }
+        int[] starts = new int[startDays.length];
+        int[] ends = new int[endDays.length];
+        for (int i = 0; i < startDays.length; i++) {
+            starts[i] = EpochDays.of(startDays[i]);
+            ends[i] = EpochDays.of(endDays[i]);
+        }
+        return of(starts, ends);
+    }
+
+    /**
+     * Builds a set of ranges from two arrays of epoch days of the same length. Range i runs
+     * from startDays[i] to endDays[i], both inclusive. Ranges may be passed in any order and
+     * may overlap.
+     * @param startDays The first epoch day of each range
+     * @param endDays The last epoch day of each range
+     * @return A new DateRangeSet
+     */
+    public static DateRangeSet of(int[] startDays, int[] endDays) {
+        if (startDays.length != endDays.length) {
+            throw new IllegalArgumentException("Every range needs both a start and an end day");
+        }
+        long[] ranges = new long[startDays.length];
+        for (int i = 0; i < startDays.length; i++) {
+            if (endDays[i] < startDays[i]) {
+                throw new IllegalArgumentException("The end of a range must not be before its start");
+            }
+            ranges[i] = pack(startDays[i], endDays[i]);
+        }
+        Arrays.sort(ranges);
+
+        // Merge overlapping and adjacent ranges so every lookup only has to check one range
+        int count = 0;
+        for (long range : ranges) {
+            if (count > 0 && getStart(range) <= getEnd(ranges[count - 1]) + 1) {
+                int end = Math.max(getEnd(range), getEnd(ranges[count - 1]));
+                ranges[count - 1] = pack(getStart(ranges[count - 1]), end);
+            } else {
+                ranges[count++] = range;
+            }
+        }
+        return new DateRangeSet(Arrays.copyOf(ranges, count));
+    }
+
+    /**
+     * Restores a set created by {@link #toPackedArray()}
+     * @param packed The packed ranges
+     * @return A new DateRangeSet
+     */
+    static DateRangeSet fromPackedArray(long[] packed) {
+        return new DateRangeSet(packed);
+    }
+
+    /**
+     * @return The ranges in this set packed as longs, suitable for storing in a Bundle
+     */
+    long[] toPackedArray() {
+        return mRanges;
+    }
+
+    /**
+     * @param epochDay The epoch day to test
+     * @return true if the given day falls in one of the ranges
+     */
+    public boolean contains(int epochDay) {
+        return indexOf(epochDay) >= 0;
+    }
+
+    /**
+     * @param epochDay The epoch day to look up
+     * @return The index of the range containing the given day, or -1 if there is none
+     */
+    public int indexOf(int epochDay) {
+        // Find the last range that starts on or before the given day
+        int insertion = Arrays.binarySearch(mRanges, pack(epochDay, -1));
+        int index = insertion >= 0 ? insertion : -insertion - 2;
+        if (index < 0 || getEnd(mRanges[index]) < epochDay) return -1;
+        return index;
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return A mask in which bit day - 1 is set for every day of the given month that falls in
+     * one of the ranges
+     */
+    public int getMonthMask(int year, int month) {
+        final int first = EpochDays.of(year, month, 1);
+        final int last = first + EpochDays.getDaysInMonth(year, month) - 1;
+        // Start from the last range that starts on or before the first day of the month
+        int insertion = Arrays.binarySearch(mRanges, pack(first, -1));
+        int index = Math.max(0, insertion >= 0 ? insertion : -insertion - 2);
+        int mask = 0;
+        for (; index < mRanges.length && getStart(mRanges[index]) <= last; index++) {
+            final int end = getEnd(mRanges[index]);
+            if (end < first) continue;
+            mask |= DateConstraints.bits(Math.max(first, getStart(mRanges[index])) - first, Math.min(last, end) - first);
+        }
+        return mask;
+    }
+
+    /**
+     * @return The number of disjoint ranges in this set
+     */
+    public int size() {
+        return mRanges.length;
+    }
+
+    /**
+     * @param index The index of the range
+     * @return The first epoch day of the range
+     */
+    public int getStart(int index) {
+        return getStart(mRanges[index]);
+    }
+
+    /**
+     * @param index The index of the range
+     * @return The last epoch day of the range
+     */
+    public int getEnd(int index) {
+        return getEnd(mRanges[index]);
+    }
+
+    private static long pack(int start, int end) {
+        return ((long) start << 32) | (end & LOW_BITS);
+    }
+
+    private static int getStart(long range) {
+        return (int) (range >> 32);
+    }
+
+    private static int getEnd(long range) {
+        return (int) range;
+    }
+}
@@ -0,0 +1,148 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import java.util.Calendar;
+
+/**
+ * Recurring date rules, such as "every second Tuesday" or "the first business day of the month",
+ * as {@link DateConstraint}s. Every rule computes the mask of a month with a bit of arithmetic on
+ * the first day of the month, so a rule takes the same amount of memory no matter how many years
+ * the picker shows. Rules can be combined with each other and with the constraints of
+ * {@link DateConstraints}, and {@link #compile} turns a set of rules into a single constraint
+ * that keeps the masks of recently used months.
+ * <pre>
+ * DateConstraint businessDays = DateConstraints.weekdays(Calendar.MONDAY, Calendar.TUESDAY,
+ *         Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY);
+ * DateConstraint rules = DateRules.compile(
+ *         DateRules.nthOfMonth(1, businessDays),
+ *         DateRules.every(14, firstTuesday));
+ * </pre>
+ */
+public final class DateRules {
+    // Enough for a year and a half of months around the ones on screen
+    public static final int DEFAULT_CACHE_MONTHS = 18;
+
+    private DateRules() {
+        // Static factories only
+    }
+
+    /**
+     * @param n Which matching day to allow: 1 for the first, 2 for the second, and so on, or -1
+     *          for the last, -2 for the second to last, and so on
+     * @param days The days to count, for instance the business days of the week
+     * @return A constraint that allows the nth day of every month that is allowed by the given
+     * constraint, if the month has that many
+     */
+    public static DateConstraint nthOfMonth(final int n, final DateConstraint days) {
+        if (n == 0) {
+            throw new IllegalArgumentException("n must not be 0");
+        }
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                int mask = days.getMonthMask(year, month) & DateConstraints.fullMonthMask(year, month);
+                if (n > 0) {
+                    // Drop the lowest n - 1 days
+                    for (int i = 1; i < n && mask != 0; i++) mask &= mask - 1;
+                    return Integer.lowestOneBit(mask);
+                }
+                for (int i = -1; i > n && mask != 0; i--) mask &= ~Integer.highestOneBit(mask);
+                return Integer.highestOneBit(mask);
+            }
+        };
+    }
+
+    /**
+     * @param n Which occurrence to allow: 1 for the first, or -1 for the last, see {@link #nthOfMonth}
+     * @param dayOfWeek The day of the week, {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return A constraint that allows the nth given day of the week of every month, for
+     * instance the second Tuesday
+     */
+    public static DateConstraint nthWeekdayOfMonth(int n, int dayOfWeek) {
+        return nthOfMonth(n, DateConstraints.weekdays(dayOfWeek));
+    }
+
+    /**
+     * @param daysOfMonth The allowed days of the month. 1 is the first day, -1 the last day,
+     *                    -2 the day before the last day, and so on.
+     * @return A constraint that allows the given days of every month. Days that don't exist in
+     * a month, like the 31st of April, are skipped.
+     */
+    public static DateConstraint daysOfMonth(int... daysOfMonth) {
+        int fromStart = 0;
+        int fromEnd = 0;
+        for (int day : daysOfMonth) {
+            if (day == 0 || day > 31 || day < -31) {
+                throw new IllegalArgumentException("Days of the month must be between 1 and 31, or -1 and -31");
+            }
+            if (day > 0) fromStart |= 1 << (day - 1);
+            else fromEnd |= 1 << (-day - 1);
+        }
+        final int startMask = fromStart;
+        final int endMask = fromEnd;
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                final int numDays = EpochDays.getDaysInMonth(year, month);
+                // Bit i of endMask stands for day numDays - i, so reverse it onto the month
+                final int fromEnd = Integer.reverse(endMask) >>> (32 - numDays);
+                return (startMask | fromEnd) & DateConstraints.fullMonthMask(year, month);
+            }
+        };
+    }
+
+    /**
+     * @param intervalDays The number of days between two allowed days, 14 for every other week
+     * @param anchorEpochDay The first allowed day, as the number of days since 1970-01-01
+     * @return A constraint that allows the anchor day and every intervalDays days after it
+     */
+    public static DateConstraint every(final int intervalDays, final int anchorEpochDay) {
+        if (intervalDays < 1) {
+            throw new IllegalArgumentException("The interval must be at least one day");
+        }
+        return new DateConstraint() {
+            @Override
+            public int getMonthMask(int year, int month) {
+                final int first = EpochDays.of(year, month, 1);
+                final int last = first + EpochDays.getDaysInMonth(year, month) - 1;
+                if (last < anchorEpochDay) return 0;
+                final int start = Math.max(first, anchorEpochDay);
+                final int offset = (start - anchorEpochDay) % intervalDays;
+                int mask = 0;
+                for (int day = offset == 0 ? start : start + intervalDays - offset; day <= last; day += intervalDays) {
+                    mask |= 1 << (day - first);
+                }
+                return mask;
+            }
+        };
+    }
+
+    /**
+     * @param intervalDays The number of days between two allowed days
+     * @param anchor The first allowed day
+     * @return A constraint that allows the anchor day and every intervalDays days after it
+     */
+    public static DateConstraint every(int intervalDays, Calendar anchor) {
+        return every(intervalDays, EpochDays.of(anchor));
+    }
+
+    /**
+     * Combines rules into a single constraint that allows a day if any of the rules allows it.
+     * The masks of the {@link #DEFAULT_CACHE_MONTHS} most recently used months are kept, so each
+     * rule is evaluated at most once per month while that month is in use.
+     * @param rules The rules to combine
+     * @return The compiled rules
+     */
+    public static MemoizedDateConstraint compile(DateConstraint... rules) {
+        return compile(DEFAULT_CACHE_MONTHS, rules);
+    }
+
+    /**
+     * @param maxMonths The number of months of which the masks are kept
+     * @param rules The rules to combine
+     * @return The compiled rules, see {@link #compile(DateConstraint...)}
+     */
+    public static MemoizedDateConstraint compile(int maxMonths, DateConstraint... rules) {
+        final DateConstraint union = rules.length == 1 ? rules[0] : DateConstraints.union(rules);
+        return DateConstraints.memoize(union, maxMonths);
+    }
+}
@@ -0,0 +1,394 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import java.util.BitSet;
+import java.util.Calendar;
+
+/**
+ * A set of days, keyed by epoch day and backed by a bitmap with one bit per day between the
+ * first and the last day of the set. Lookups are a single bit test and don't allocate.
+ */
+public final class DateSet {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+    private static final DateSet EMPTY = new DateSet(0, new long[0], Integer.MAX_VALUE, Integer.MIN_VALUE, 0);
+
+    // Epoch day of the first bit in the bitmap
+    private final int mOffset;
+    private final long[] mWords;
+    private final int mFirst;
+    private final int mLast;
+    private final int mSize;
+
+    private DateSet(int offset, long[] words, int first, int last, int size) {
+        mOffset = offset;
+        mWords = words;
+        mFirst = first;
+        mLast = last;
+        mSize = size;
+    }
+
+    /**
+     * Builds a set containing the days of the given calendars. The order of the array
+     * doesn't matter and duplicates are ignored.
+     * @param days An array of Calendar objects
+     * @return A new DateSet
+     */
+    public static DateSet of(Calendar[] days) {
+        int[] epochDays = new int[days.length];
+        for (int i = 0; i < days.length; i++) {
+            epochDays[i] = EpochDays.of(days[i]);
+        }
+        return of(epochDays);
+    }
+
+    /**
+     * Builds a set containing the given epoch days. The order of the array doesn't matter and
+     * duplicates are ignored.
+     * @param epochDays An array of epoch days
+     * @return A new DateSet
+     */
+    public static DateSet of(int[] epochDays) {
+        if (epochDays.length == 0) {
+            return EMPTY;
+        }
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int epochDay : epochDays) {
+            if (epochDay < first) first = epochDay;
+            if (epochDay > last) last = epochDay;
+        }
+        long[] words = new long[((last - first) >> ADDRESS_BITS_PER_WORD) + 1];
+        int size = 0;
+        for (int epochDay : epochDays) {
+            final int bit = epochDay - first;
+            final long mask = 1L << bit;
+            final int index = bit >> ADDRESS_BITS_PER_WORD;
+            if ((words[index] & mask) == 0) {
+                words[index] |= mask;
+                size++;
+            }
+        }
+        return new DateSet(first, words, first, last, size);
+    }
+
+    /**
+     * Builds a set containing the given epoch days. The order of the array doesn't matter and
+     * duplicates are ignored.
+     * @param epochDays An array of epoch days
+     * @return A new DateSet
+     */
+    public static DateSet of(long[] epochDays) {
+        int[] days = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            if (epochDays[i] < Integer.MIN_VALUE || epochDays[i] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Epoch day out of range: " + epochDays[i]);
+            }
+            days[i] = (int) epochDays[i];
+        }
+        return of(days);
+    }
+
+    /**
+     * Builds a set containing every day of the given ranges. Range i runs from startDays[i] to
+     * endDays[i], both inclusive. Ranges may be passed in any order and may overlap.
+     * @param startDays The first epoch day of each range
+     * @param endDays The last epoch day of each range
+     * @return A new DateSet
+     */
+    public static DateSet ofRanges(int[] startDays, int[] endDays) {
+        if (startDays.length != endDays.length) {
+            throw new IllegalArgumentException("Every range needs both a start and an end day");
+        }
+        if (startDays.length == 0) {
+            return EMPTY;
+        }
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < startDays.length; i++) {
+            if (endDays[i] < startDays[i]) {
+                throw new IllegalArgumentException("The end of a range must not be before its start");
+            }
+            if (startDays[i] < first) first = startDays[i];
+            if (endDays[i] > last) last = endDays[i];
+        }
+        long[] words = new long[((last - first) >> ADDRESS_BITS_PER_WORD) + 1];
+        for (int i = 0; i < startDays.length; i++) {
+            final int startBit = startDays[i] - first;
+            final int endBit = endDays[i] - first;
+            final int startWord = startBit >> ADDRESS_BITS_PER_WORD;
+            final int endWord = endBit >> ADDRESS_BITS_PER_WORD;
+            // Fill whole words at once: the shifts only use the lowest 6 bits of the bit index
+            final long startMask = -1L << startBit;
+            final long endMask = -1L >>> (BITS_PER_WORD - 1 - (endBit & (BITS_PER_WORD - 1)));
+            if (startWord == endWord) {
+                words[startWord] |= startMask & endMask;
+            } else {
+                words[startWord] |= startMask;
+                for (int word = startWord + 1; word < endWord; word++) {
+                    words[word] = -1L;
+                }
+                words[endWord] |= endMask;
+            }
+        }
+        return fromWords(first, words);
+    }
+
+    /**
+     * Builds a set from a BitSet in which bit i stands for the day firstEpochDay + i
+     * @param days The days in the set
+     * @param firstEpochDay The epoch day of bit 0
+     * @return A new DateSet
+     */
+    public static DateSet of(BitSet days, int firstEpochDay) {
+        if (days.isEmpty()) {
+            return EMPTY;
+        }
+        final int firstBit = days.nextSetBit(0);
+        final int lastBit = days.length() - 1;
+        long[] words = new long[((lastBit - firstBit) >> ADDRESS_BITS_PER_WORD) + 1];
+        for (int bit = firstBit; bit >= 0; bit = days.nextSetBit(bit + 1)) {
+            final int offsetBit = bit - firstBit;
+            words[offsetBit >> ADDRESS_BITS_PER_WORD] |= 1L << offsetBit;
+        }
+        return fromWords(firstEpochDay + firstBit, words);
+    }
+
+    /**
+     * Restores a set from the bitmap returned by {@link #getWords()}
+     * @param offset The epoch day of the first bit in the bitmap
+     * @param words The bitmap
+     * @return A new DateSet
+     */
+    static DateSet fromWords(int offset, long[] words) {
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        int size = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] == 0) continue;
+            if (first == Integer.MAX_VALUE) {
+                first = offset + i * BITS_PER_WORD + Long.numberOfTrailingZeros(words[i]);
+            }
+            last = offset + i * BITS_PER_WORD + BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(words[i]);
+            size += Long.bitCount(words[i]);
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new DateSet(offset, words, first, last, size);
+    }
+
+    /**
+     * @param epochDay The epoch day to add
+     * @return A set containing the days of this set and the given day. This set is returned if
+     * it already contains the day. Only the bitmap is copied, the days are not sorted again.
+     */
+    public DateSet with(int epochDay) {
+        if (contains(epochDay)) return this;
+        if (mSize == 0) return of(new int[]{epochDay});
+        // Grow the bitmap by whole words, so the existing words don't need to be shifted
+        final int wordsBefore = epochDay < mOffset
+                ? ((mOffset - epochDay - 1) >> ADDRESS_BITS_PER_WORD) + 1 : 0;
+        final int offset = mOffset - wordsBefore * BITS_PER_WORD;
+        final int index = (epochDay - offset) >> ADDRESS_BITS_PER_WORD;
+        long[] words = new long[Math.max(mWords.length + wordsBefore, index + 1)];
+        System.arraycopy(mWords, 0, words, wordsBefore, mWords.length);
+        words[index] |= 1L << (epochDay - offset);
+        return new DateSet(offset, words, Math.min(mFirst, epochDay), Math.max(mLast, epochDay), mSize + 1);
+    }
+
+    /**
+     * @param epochDay The epoch day to remove
+     * @return A set containing the days of this set except the given day. This set is returned
+     * if it doesn't contain the day. Only the bitmap is copied, the days are not sorted again.
+     */
+    public DateSet without(int epochDay) {
+        if (!contains(epochDay)) return this;
+        if (mSize == 1) return EMPTY;
+        final int bit = epochDay - mOffset;
+        long[] words = mWords.clone();
+        words[bit >> ADDRESS_BITS_PER_WORD] &= ~(1L << bit);
+        DateSet set = new DateSet(mOffset, words, mFirst, mLast, mSize - 1);
+        if (epochDay == mFirst) return new DateSet(mOffset, words, set.next(epochDay + 1), mLast, mSize - 1);
+        if (epochDay == mLast) return new DateSet(mOffset, words, mFirst, set.previous(epochDay - 1), mSize - 1);
+        return set;
+    }
+
+    /**
+     * Applies a batch of changes with a single copy of the bitmap. A day that is both added and
+     * removed is removed.
+     * @param added The epoch days to add, in any order
+     * @param removed The epoch days to remove, in any order
+     * @return A set containing the days of this set and the added days, without the removed days
+     */
+    public DateSet withChanges(int[] added, int[] removed) {
+        if (added.length == 0 && removed.length == 0) return this;
+        int first = mSize == 0 ? Integer.MAX_VALUE : mOffset;
+        int last = mSize == 0 ? Integer.MIN_VALUE : mOffset + mWords.length * BITS_PER_WORD - 1;
+        for (int epochDay : added) {
+            if (epochDay < first) first = epochDay;
+            if (epochDay > last) last = epochDay;
+        }
+        if (first > last) return this;
+        // Keep the existing words aligned, so they can be copied as they are
+        final int offset = mSize == 0 ? first
+                : mOffset - (((mOffset - first + BITS_PER_WORD - 1) >> ADDRESS_BITS_PER_WORD) << ADDRESS_BITS_PER_WORD);
+        long[] words = new long[((last - offset) >> ADDRESS_BITS_PER_WORD) + 1];
+        if (mSize != 0) {
+            System.arraycopy(mWords, 0, words, (mOffset - offset) >> ADDRESS_BITS_PER_WORD, mWords.length);
+        }
+        for (int epochDay : added) {
+            final int bit = epochDay - offset;
+            words[bit >> ADDRESS_BITS_PER_WORD] |= 1L << bit;
+        }
+        for (int epochDay : removed) {
+            final int bit = epochDay - offset;
+            if (bit >= 0 && bit >> ADDRESS_BITS_PER_WORD < words.length) {
+                words[bit >> ADDRESS_BITS_PER_WORD] &= ~(1L << bit);
+            }
+        }
+        return fromWords(offset, words);
+    }
+
+    /**
+     * @return The epoch day of the first bit in the bitmap returned by {@link #getWords()}
+     */
+    int getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * @return The bitmap backing this set, suitable for storing in a Bundle. Don't modify it.
+     */
+    long[] getWords() {
+        return mWords;
+    }
+
+    /**
+     * @param epochDay The epoch day to test
+     * @return true if the given day is part of this set
+     */
+    public boolean contains(int epochDay) {
+        if (epochDay < mFirst || epochDay > mLast) return false;
+        final int bit = epochDay - mOffset;
+        return (mWords[bit >> ADDRESS_BITS_PER_WORD] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @param day The day of the month
+     * @return true if the given day is part of this set
+     */
+    public boolean contains(int year, int month, int day) {
+        return contains(EpochDays.of(year, month, day));
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return A mask in which bit day - 1 is set for every day of the given month in this set
+     */
+    public int getMonthMask(int year, int month) {
+        final int first = EpochDays.of(year, month, 1);
+        final int last = first + EpochDays.getDaysInMonth(year, month) - 1;
+        if (last < mFirst || first > mLast) return 0;
+        // A month spans at most two words of the bitmap
+        final int bit = first - mOffset;
+        final int index = bit >> ADDRESS_BITS_PER_WORD;
+        final int shift = bit & (BITS_PER_WORD - 1);
+        long bits = getWord(index) >>> shift;
+        if (shift != 0) bits |= getWord(index + 1) << (BITS_PER_WORD - shift);
+        return (int) bits & DateConstraints.bits(0, last - first);
+    }
+
+    private long getWord(int index) {
+        return index >= 0 && index < mWords.length ? mWords[index] : 0;
+    }
+
+    /**
+     * @return The epoch day of the earliest day in this set, or Integer.MAX_VALUE if it is empty
+     */
+    public int getFirst() {
+        return mFirst;
+    }
+
+    /**
+     * @return The epoch day of the latest day in this set, or Integer.MIN_VALUE if it is empty
+     */
+    public int getLast() {
+        return mLast;
+    }
+
+    /**
+     * @return The number of days in this set
+     */
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * @param epochDay The epoch day to start searching from
+     * @return The earliest day in this set on or after the given day, or Integer.MAX_VALUE if
+     * there is none
+     */
+    public int next(int epochDay) {
+        if (epochDay > mLast) return Integer.MAX_VALUE;
+        if (epochDay <= mFirst) return mFirst;
+        final int bit = epochDay - mOffset;
+        int index = bit >> ADDRESS_BITS_PER_WORD;
+        long word = mWords[index] & (-1L << bit);
+        // This terminates because mLast is at or after the given day
+        while (word == 0) {
+            word = mWords[++index];
+        }
+        return mOffset + index * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @param epochDay The epoch day to start searching from
+     * @return The latest day in this set on or before the given day, or Integer.MIN_VALUE if
+     * there is none
+     */
+    public int previous(int epochDay) {
+        if (epochDay < mFirst) return Integer.MIN_VALUE;
+        if (epochDay >= mLast) return mLast;
+        final int bit = epochDay - mOffset;
+        int index = bit >> ADDRESS_BITS_PER_WORD;
+        long word = mWords[index] & (-1L >>> (BITS_PER_WORD - 1 - (bit & (BITS_PER_WORD - 1))));
+        // This terminates because mFirst is at or before the given day
+        while (word == 0) {
+            word = mWords[--index];
+        }
+        return mOffset + index * BITS_PER_WORD + BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * @return The days in this set as epoch days, in chronological order
+     */
+    public int[] toEpochDays() {
+        int[] epochDays = new int[mSize];
+        int count = 0;
+        for (int day = mFirst; count < mSize; day = next(day + 1)) {
+            epochDays[count++] = day;
+        }
+        return epochDays;
+    }
+
+    /**
+     * @return The days in this set as new Calendar objects, in chronological order
+     */
+    public Calendar[] toCalendars() {
+        Calendar[] calendars = new Calendar[mSize];
+        int count = 0;
+        for (int day = mFirst; count < mSize; day = next(day + 1)) {
+            Calendar calendar = Calendar.getInstance();
+            EpochDays.toCalendar(day, calendar);
+            calendars[count++] = calendar;
+        }
+        return calendars;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * Decides per day whether it can be selected, for apps that find a callback easier than building
+ * a {@link DateConstraint}. The picker asks about every day of a month at once, the first time
+ * the month is needed, and keeps the answers until
+ * {@link DatePickerDialog#invalidateConstraints(int, int)} is called for that month. Redrawing or
+ * scrolling the picker doesn't call the predicate again. Besides the months that are shown, it is
+ * only asked about the months within five years of the day that
+ * {@link DatePickerDialog#findNearestSelectable(int, int)} starts from, and only about the months
+ * in which the other constraints leave a day to select.
+ *
+ * The predicate may be called from a background thread, as the months of the picker are prepared
+ * off the main thread.
+ */
+public interface DayEnabledPredicate {
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @param day The day of the month
+     * @return true if the day can be selected
+     */
+    boolean isDayEnabled(int year, int month, int day);
+}
@@ -22,15 +22,15 @@ import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.support.annotation.NonNull;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.LinearSmoothScroller;
+import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.View;
-import android.view.ViewConfiguration;
+import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
 import android.view.accessibility.AccessibilityNodeInfo;
-import android.widget.AbsListView;
-import android.widget.AbsListView.OnScrollListener;
-import android.widget.ListView;
 
 import com.wdullaer.materialdatetimepicker.Utils;
 import com.wdullaer.materialdatetimepicker.date.DatePickerDialog.OnDateChangedListener;
@@ -42,8 +42,7 @@ import java.util.Locale;
 /**
  * This displays a list of months in a calendar format with selectable days.
  */
-public abstract class DayPickerView extends ListView implements OnScrollListener,
-    OnDateChangedListener {
+public abstract class DayPickerView extends RecyclerView implements OnDateChangedListener {
 
     private static final String TAG = "MonthFragment";
 
@@ -54,6 +53,13 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     // How long to wait after receiving an onScrollStateChanged notification
     // before acting on it
     protected static final int SCROLL_CHANGE_DELAY = 40;
+    // How many recycled month views to keep around. Only a couple of months are ever visible at
+    // once, so a small fixed pool is enough to never inflate a view while scrolling.
+    protected static final int MAX_RECYCLED_MONTH_VIEWS = 4;
+    // How far ahead, in frames, to load the months the list is scrolling towards
+    protected static final int PREFETCH_WINDOW_FRAMES = 30;
+    // The maximum number of months to load ahead of the scroll
+    protected static final int MAX_PREFETCH_MONTHS = 12;
     // The number of days to display in each week
     public static final int DAYS_PER_WEEK = 7;
     public static int LIST_TOP_OFFSET = -1; // so that the top line will be
@@ -64,17 +70,18 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     protected int mDaysPerWeek = 7;
     private static SimpleDateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy", Locale.getDefault());
 
-    // These affect the scroll speed and feel
+    // These affect the scroll speed and feel: fling velocities are divided by this factor
     protected float mFriction = 1.0f;
 
     protected Context mContext;
     protected Handler mHandler;
+    protected LinearLayoutManager mLayoutManager;
 
-    // highlighted time
-    protected MonthAdapter.CalendarDay mSelectedDay = new MonthAdapter.CalendarDay();
+    // highlighted time, today until the controller selects a day
+    protected MonthAdapter.CalendarDay mSelectedDay;
     protected MonthAdapter mAdapter;
 
-    protected MonthAdapter.CalendarDay mTempDay = new MonthAdapter.CalendarDay();
+    protected MonthAdapter.CalendarDay mTempDay;
 
     // When the week starts; numbered like Time.<WEEKDAY> (e.g. SUNDAY=0).
     protected int mFirstDayOfWeek;
@@ -84,10 +91,10 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     protected int mCurrentMonthDisplayed;
     // used for tracking during a scroll
     protected long mPreviousScrollPosition;
-    // used for tracking what state listview is in
-    protected int mPreviousScrollState = OnScrollListener.SCROLL_STATE_IDLE;
-    // used for tracking what state listview is in
-    protected int mCurrentScrollState = OnScrollListener.SCROLL_STATE_IDLE;
+    // used for tracking what state the list is in
+    protected int mPreviousScrollState = RecyclerView.SCROLL_STATE_IDLE;
+    // used for tracking what state the list is in
+    protected int mCurrentScrollState = RecyclerView.SCROLL_STATE_IDLE;
 
     private DatePickerController mController;
     private boolean mPerformingScroll;
@@ -106,14 +113,17 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     public void setController(DatePickerController controller) {
         mController = controller;
         mController.registerOnDateChangedListener(this);
+        // Read today from the controller's clock rather than the system time
+        mSelectedDay = MonthAdapter.CalendarDay.fromEpochDay(mController.getTodayEpochDay());
+        mTempDay = MonthAdapter.CalendarDay.fromEpochDay(mController.getTodayEpochDay());
         refreshAdapter();
         onDateChanged();
     }
 
     public void init(Context context) {
         mHandler = new Handler();
-        setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
-        setDrawSelectorOnTop(false);
+        setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
 
         mContext = context;
         setUpListView();
@@ -123,6 +133,32 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         refreshAdapter();
     }
 
+    /**
+     * Redraws a single month, because its constraints changed
+     * @param monthIndex The month index (year * 12 + month) of the month
+     */
+    public void onMonthChanged(int monthIndex) {
+        if (mAdapter != null) mAdapter.invalidateMonth(monthIndex);
+    }
+
+    /**
+     * Redraws the given months, because their selectable days changed. When empty months are
+     * skipped, months that became empty or stopped being empty are removed from or inserted
+     * into the list.
+     * @param monthIndices The month indices (year * 12 + month) of the months, in ascending order
+     * @param oldSummary The summary from before the change, null if empty months aren't skipped
+     */
+    public void onMonthsChanged(int[] monthIndices, SelectableDaySummary oldSummary) {
+        if (mAdapter != null) mAdapter.invalidateMonths(monthIndices, oldSummary);
+    }
+
+    /**
+     * Redraws the months to move the today marker, because the day changed
+     */
+    public void onTodayChanged() {
+        if (mAdapter != null) mAdapter.onTodayChanged();
+    }
+
     /**
      * Creates a new adapter if necessary and sets up its parameters. Override
      * this method to provide a custom adapter.
@@ -131,10 +167,16 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         if (mAdapter == null) {
             mAdapter = createMonthAdapter(getContext(), mController);
         } else {
+            mAdapter.invalidateMonthModels();
+            mAdapter.invalidateRenderCache();
             mAdapter.setSelectedDay(mSelectedDay);
         }
         // refresh the view with the new parameters
-        setAdapter(mAdapter);
+        if (getAdapter() != mAdapter) {
+            setAdapter(mAdapter);
+        } else {
+            mAdapter.notifyDataSetChanged();
+        }
     }
 
     public abstract MonthAdapter createMonthAdapter(Context context,
@@ -145,19 +187,42 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
      * set a different list view behavior.
      */
     protected void setUpListView() {
-        // Transparent background on scroll
-        setCacheColorHint(0);
-        // No dividers
-        setDivider(null);
-        // Items are clickable
-        setItemsCanFocus(true);
+        mLayoutManager = new LinearLayoutManager(getContext(), LinearLayoutManager.VERTICAL, false);
+        // Bind the next month while the UI thread is idle between frames, instead of inside
+        // the frame in which it scrolls into view
+        mLayoutManager.setItemPrefetchEnabled(true);
+        setLayoutManager(mLayoutManager);
+        // Every month has the same width and the list always fills the picker
+        setHasFixedSize(true);
+        RecycledViewPool pool = new RecycledViewPool();
+        pool.setMaxRecycledViews(MonthAdapter.VIEW_TYPE_MONTH, MAX_RECYCLED_MONTH_VIEWS);
+        setRecycledViewPool(pool);
+        // The month views are redrawn in place, there is nothing to animate
+        setItemAnimator(null);
         // The thumb gets in the way, so disable it
-        setFastScrollEnabled(false);
         setVerticalScrollBarEnabled(false);
-        setOnScrollListener(this);
+        addOnScrollListener(mScrollListener);
         setFadingEdgeLength(0);
+    }
+
+    @Override
+    public boolean fling(int velocityX, int velocityY) {
         // Make the scrolling behavior nicer
-        setFriction(ViewConfiguration.getScrollFriction() * mFriction);
+        return super.fling((int) (velocityX / mFriction), (int) (velocityY / mFriction));
+    }
+
+    /**
+     * @return The adapter position of the first (partially) visible month
+     */
+    public int getFirstVisiblePosition() {
+        return mLayoutManager.findFirstVisibleItemPosition();
+    }
+
+    /**
+     * @return The adapter position of the last (partially) visible month
+     */
+    public int getLastVisiblePosition() {
+        return mLayoutManager.findLastVisibleItemPosition();
     }
 
     /**
@@ -165,7 +230,8 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
      * in range it will move the list so that the first of the month containing
      * the time is at the top of the view. If the new time is already in view
      * the list will not be scrolled unless forceScroll is true. This time may
-     * optionally be highlighted as selected as well.
+     * optionally be highlighted as selected as well. If the month of the day
+     * has no selectable days, the list moves to the next month that has some.
      *
      * @param day The day to move to
      * @param animate Whether to scroll to the given time or just redraw at the
@@ -179,13 +245,16 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
         // Set the selected day
         if (setSelected) {
-            mSelectedDay.set(day);
+            mSelectedDay = day;
         }
 
-        mTempDay.set(day);
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        final int position = (day.year - mController.getMinYear())
-                * MonthAdapter.MONTHS_IN_YEAR + day.month - minMonth;
+        mTempDay = mController.shouldSkipEmptyMonths() ? getNearestNonEmptyMonth(day) : day;
+        final int position = mAdapter.getPositionForMonth(mTempDay.year, mTempDay.month);
+        if (position < 0) {
+            // No month has any selectable days
+            if (setSelected) mAdapter.setSelectedDay(mSelectedDay);
+            return false;
+        }
 
         View child;
         int i = 0;
@@ -205,7 +274,7 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         // Compute the first and last position visible
         int selectedPosition;
         if (child != null) {
-            selectedPosition = getPositionForView(child);
+            selectedPosition = getChildAdapterPosition(child);
         } else {
             selectedPosition = 0;
         }
@@ -221,10 +290,11 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         // and if so scroll to the month that contains it
         if (position != selectedPosition || forceScroll) {
             setMonthDisplayed(mTempDay);
-            mPreviousScrollState = OnScrollListener.SCROLL_STATE_FLING;
+            mPreviousScrollState = RecyclerView.SCROLL_STATE_SETTLING;
             if (animate) {
-                smoothScrollToPositionFromTop(
-                        position, LIST_TOP_OFFSET, GOTO_SCROLL_DURATION);
+                SnapToTopScroller scroller = new SnapToTopScroller(getContext());
+                scroller.setTargetPosition(position);
+                mLayoutManager.startSmoothScroll(scroller);
                 return true;
             } else {
                 postSetSelection(position);
@@ -235,50 +305,106 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         return false;
     }
 
+    /**
+     * @param day A day
+     * @return The given day if its month has selectable days. Otherwise the first day of the
+     * next month that has some, or of the previous one if there is no next one.
+     */
+    private MonthAdapter.CalendarDay getNearestNonEmptyMonth(MonthAdapter.CalendarDay day) {
+        final SelectableDaySummary summary = mController.getSelectableDaySummary();
+        if (summary.getSelectableDayCount(day.year, day.month) > 0) return day;
+        final int monthIndex = DateBounds.getMonthIndex(day.year, day.month);
+        int target = summary.nextNonEmptyMonth(monthIndex);
+        if (target == -1) target = summary.previousNonEmptyMonth(monthIndex);
+        if (target == -1) return day;
+        return new MonthAdapter.CalendarDay(target / MonthAdapter.MONTHS_IN_YEAR,
+                target % MonthAdapter.MONTHS_IN_YEAR, 1);
+    }
+
     public void postSetSelection(final int position) {
         clearFocus();
         post(new Runnable() {
 
             @Override
             public void run() {
-                setSelection(position);
+                mLayoutManager.scrollToPositionWithOffset(position, 0);
             }
         });
-        onScrollStateChanged(this, OnScrollListener.SCROLL_STATE_IDLE);
+        mScrollStateChangedRunnable.doScrollStateChange(RecyclerView.SCROLL_STATE_IDLE);
     }
 
     /**
-     * Updates the title and selected month if the view has moved to a new
-     * month.
+     * Asks the controller to load the months the list is moving towards. The faster the list
+     * scrolls, the further ahead it looks: roughly as many months as will pass by in the next
+     * {@link #PREFETCH_WINDOW_FRAMES} frames at the current speed.
+     * @param dy The distance scrolled in the last frame
+     * @param monthHeight The height of a month in the list
      */
-    @Override
-    public void onScroll(
-            AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
-        MonthView child = (MonthView) view.getChildAt(0);
-        if (child == null) {
-            return;
+    private void prefetchAhead(int dy, int monthHeight) {
+        final int months = Math.min(MAX_PREFETCH_MONTHS,
+                1 + Math.abs(dy) * PREFETCH_WINDOW_FRAMES / monthHeight);
+        final int position = dy > 0 ? getLastVisiblePosition() : getFirstVisiblePosition();
+        if (position == NO_POSITION) return;
+        final int from = mAdapter.getMonthIndexForPosition(position) + (dy > 0 ? 1 : -1);
+        mController.prefetchAvailability(from, dy > 0 ? from + months - 1 : from - months + 1);
+    }
+
+    /**
+     * Scrolls the target month to the top of the list, matching what goTo used to do with
+     * smoothScrollToPositionFromTop
+     */
+    private static class SnapToTopScroller extends LinearSmoothScroller {
+        SnapToTopScroller(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected int getVerticalSnapPreference() {
+            return SNAP_TO_START;
         }
 
-        // Figure out where we are
-        long currScroll = view.getFirstVisiblePosition() * child.getHeight() - child.getBottom();
-        mPreviousScrollPosition = currScroll;
-        mPreviousScrollState = mCurrentScrollState;
+        @Override
+        protected int calculateTimeForScrolling(int dx) {
+            return Math.min(super.calculateTimeForScrolling(dx), GOTO_SCROLL_DURATION);
+        }
     }
 
+    private final OnScrollListener mScrollListener = new OnScrollListener() {
+        /**
+         * Updates the title and selected month if the view has moved to a new
+         * month.
+         */
+        @Override
+        public void onScrolled(RecyclerView view, int dx, int dy) {
+            View child = getChildAt(0);
+            if (child == null) {
+                return;
+            }
+
+            // Figure out where we are
+            long currScroll = getFirstVisiblePosition() * child.getHeight() - child.getBottom();
+            mPreviousScrollPosition = currScroll;
+            mPreviousScrollState = mCurrentScrollState;
+
+            if (dy != 0 && child.getHeight() > 0) {
+                prefetchAhead(dy, child.getHeight());
+            }
+        }
+
+        @Override
+        public void onScrollStateChanged(RecyclerView view, int scrollState) {
+            // use a post to prevent re-entering onScrollStateChanged before it
+            // exits
+            mScrollStateChangedRunnable.doScrollStateChange(scrollState);
+        }
+    };
+
     /**
      * Sets the month displayed at the top of this view based on time. Override
      * to add custom events when the title is changed.
      */
     protected void setMonthDisplayed(MonthAdapter.CalendarDay date) {
         mCurrentMonthDisplayed = date.month;
-        invalidateViews();
-    }
-
-    @Override
-    public void onScrollStateChanged(AbsListView view, int scrollState) {
-        // use a post to prevent re-entering onScrollStateChanged before it
-        // exits
-        mScrollStateChangedRunnable.doScrollStateChange(view, scrollState);
     }
 
     protected ScrollStateRunnable mScrollStateChangedRunnable = new ScrollStateRunnable();
@@ -290,10 +416,9 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
          * Sets up the runnable with a short delay in case the scroll state
          * immediately changes again.
          *
-         * @param view The list view that changed state
          * @param scrollState The new state it changed to
          */
-        public void doScrollStateChange(AbsListView view, int scrollState) {
+        public void doScrollStateChange(int scrollState) {
             mHandler.removeCallbacks(this);
             mNewState = scrollState;
             mHandler.postDelayed(this, SCROLL_CHANGE_DELAY);
@@ -307,9 +432,9 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
                         "new scroll state: " + mNewState + " old state: " + mPreviousScrollState);
             }
             // Fix the position after a scroll or a fling ends
-            if (mNewState == OnScrollListener.SCROLL_STATE_IDLE
-                    && mPreviousScrollState != OnScrollListener.SCROLL_STATE_IDLE
-                    && mPreviousScrollState != OnScrollListener.SCROLL_STATE_TOUCH_SCROLL) {
+            if (mNewState == RecyclerView.SCROLL_STATE_IDLE
+                    && mPreviousScrollState != RecyclerView.SCROLL_STATE_IDLE
+                    && mPreviousScrollState != RecyclerView.SCROLL_STATE_DRAGGING) {
                 mPreviousScrollState = mNewState;
                 int i = 0;
                 View child = getChildAt(i);
@@ -322,15 +447,15 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
                 }
                 int firstPosition = getFirstVisiblePosition();
                 int lastPosition = getLastVisiblePosition();
-                boolean scroll = firstPosition != 0 && lastPosition != getCount() - 1;
+                boolean scroll = firstPosition != 0 && lastPosition != mAdapter.getItemCount() - 1;
                 final int top = child.getTop();
                 final int bottom = child.getBottom();
                 final int midpoint = getHeight() / 2;
                 if (scroll && top < LIST_TOP_OFFSET) {
                     if (bottom > midpoint) {
-                        smoothScrollBy(top, GOTO_SCROLL_DURATION);
+                        smoothScrollBy(0, top);
                     } else {
-                        smoothScrollBy(bottom, GOTO_SCROLL_DURATION);
+                        smoothScrollBy(0, bottom);
                     }
                 }
             } else {
@@ -385,7 +510,7 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
                 final MonthAdapter.CalendarDay focus = ((MonthView) child).getAccessibilityFocus();
                 if (focus != null) {
                     if (Build.VERSION.SDK_INT == Build.VERSION_CODES.JELLY_BEAN_MR1) {
-                        // Clear focus to avoid ListView bug in Jelly Bean MR1.
+                        // Clear focus to avoid a list view bug in Jelly Bean MR1.
                         ((MonthView) child).clearAccessibilityFocus();
                     }
                     return focus;
@@ -422,9 +547,9 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     }
 
     @Override
-    protected void layoutChildren() {
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
         final MonthAdapter.CalendarDay focusedDay = findAccessibilityFocus();
-        super.layoutChildren();
+        super.onLayout(changed, l, t, r, b);
         if (mPerformingScroll) {
             mPerformingScroll = false;
         } else {
@@ -480,17 +605,17 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
         // Figure out what month is showing.
         int firstVisiblePosition = getFirstVisiblePosition();
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        int month = (firstVisiblePosition + minMonth) % MonthAdapter.MONTHS_IN_YEAR;
-        int year = (firstVisiblePosition + minMonth) / MonthAdapter.MONTHS_IN_YEAR + mController.getMinYear();
-        MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(year, month, 1);
+        if (firstVisiblePosition == NO_POSITION) return false;
+        int monthIndex = mAdapter.getMonthIndexForPosition(firstVisiblePosition);
+        int month = monthIndex % MonthAdapter.MONTHS_IN_YEAR;
+        int year = monthIndex / MonthAdapter.MONTHS_IN_YEAR;
 
         // Scroll either forward or backward one month.
         if (action == AccessibilityNodeInfo.ACTION_SCROLL_FORWARD) {
-            day.month++;
-            if (day.month == 12) {
-                day.month = 0;
-                day.year++;
+            month++;
+            if (month == 12) {
+                month = 0;
+                year++;
             }
         } else if (action == AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD) {
             View firstVisibleView = getChildAt(0);
@@ -499,13 +624,26 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
             if (firstVisibleView != null && firstVisibleView.getTop() >= -1) {
                 // There's an off-by-one somewhere, so the top of the first visible item will
                 // actually be -1 when it's at the exact top.
-                day.month--;
-                if (day.month == -1) {
-                    day.month = 11;
-                    day.year--;
+                month--;
+                if (month == -1) {
+                    month = 11;
+                    year--;
                 }
             }
         }
+        // Skip over the months without selectable days in the direction we are scrolling
+        final SelectableDaySummary summary = mController.shouldSkipEmptyMonths()
+                ? mController.getSelectableDaySummary() : null;
+        if (summary != null && summary.getSelectableDayCount(year, month) == 0) {
+            final int target = action == AccessibilityNodeInfo.ACTION_SCROLL_FORWARD
+                    ? summary.nextNonEmptyMonth(DateBounds.getMonthIndex(year, month))
+                    : summary.previousNonEmptyMonth(DateBounds.getMonthIndex(year, month));
+            if (target != -1) {
+                year = target / MonthAdapter.MONTHS_IN_YEAR;
+                month = target % MonthAdapter.MONTHS_IN_YEAR;
+            }
+        }
+        MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(year, month, 1);
 
         // Go to that month.
         Utils.tryAccessibilityAnnounce(this, getMonthAndYearString(day));
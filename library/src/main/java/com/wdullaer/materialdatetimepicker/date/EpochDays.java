@@ -0,0 +1,158 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Arithmetic helpers for epoch days: the number of days since 1970-01-01 in the proleptic
+ * Gregorian calendar. Months are 0-based to match {@link Calendar#MONTH}.
+ *
+ * None of these methods allocate or touch a {@link Calendar} instance (other than reading
+ * the one passed in), which makes them safe to call from drawing code.
+ */
+public final class EpochDays {
+
+    private static final int DAYS_PER_ERA = 146097;
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private EpochDays() {
+        // Static helpers only
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @param day The day of the month (1-31)
+     * @return The epoch day of the given date
+     */
+    public static int of(int year, int month, int day) {
+        // Shift the year so it starts in March: this moves the leap day to the end of the year
+        final int m = month + 1;
+        final int y = m <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @param calendar The calendar to read the year, month and day from
+     * @return The epoch day of the given date
+     */
+    public static int of(Calendar calendar) {
+        return of(
+                calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH),
+                calendar.get(Calendar.DAY_OF_MONTH)
+        );
+    }
+
+    /**
+     * @param timeInMillis A point in time, in milliseconds since the epoch
+     * @return The epoch day on which the given time falls in the default time zone
+     */
+    public static int ofMillis(long timeInMillis) {
+        final long localMillis = timeInMillis + TimeZone.getDefault().getOffset(timeInMillis);
+        long epochDay = localMillis / MILLIS_PER_DAY;
+        if (localMillis % MILLIS_PER_DAY < 0) epochDay--;
+        return (int) epochDay;
+    }
+
+    /**
+     * @param epochDay The epoch day
+     * @return The year of the given epoch day
+     */
+    public static int getYear(int epochDay) {
+        return (int) (toCivil(epochDay) >> 9);
+    }
+
+    /**
+     * @param epochDay The epoch day
+     * @return The month (0-11) of the given epoch day
+     */
+    public static int getMonth(int epochDay) {
+        return (int) ((toCivil(epochDay) >> 5) & 0xF);
+    }
+
+    /**
+     * @param epochDay The epoch day
+     * @return The day of the month (1-31) of the given epoch day
+     */
+    public static int getDay(int epochDay) {
+        return (int) (toCivil(epochDay) & 0x1F);
+    }
+
+    /**
+     * @param epochDay The epoch day
+     * @return The month index (year * 12 + month) of the given epoch day, see
+     * {@link DateBounds#getMonthIndex}
+     */
+    public static int getMonthIndex(int epochDay) {
+        final long civil = toCivil(epochDay);
+        return DateBounds.getMonthIndex((int) (civil >> 9), (int) ((civil >> 5) & 0xF));
+    }
+
+    /**
+     * @param epochDay The epoch day
+     * @return The day of the week, {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     */
+    public static int getDayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday
+        int dayOfWeek = (epochDay + 4) % 7;
+        if (dayOfWeek < 0) dayOfWeek += 7;
+        return dayOfWeek + Calendar.SUNDAY;
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The number of days in the given month
+     */
+    public static int getDaysInMonth(int year, int month) {
+        switch (month) {
+            case Calendar.FEBRUARY:
+                return isLeapYear(year) ? 29 : 28;
+            case Calendar.APRIL:
+            case Calendar.JUNE:
+            case Calendar.SEPTEMBER:
+            case Calendar.NOVEMBER:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Sets the year, month and day of the given calendar to the given epoch day. The time of day
+     * is left untouched.
+     * @param epochDay The epoch day
+     * @param calendar The calendar to update
+     */
+    public static void toCalendar(int epochDay, Calendar calendar) {
+        final long civil = toCivil(epochDay);
+        calendar.set((int) (civil >> 9), (int) ((civil >> 5) & 0xF), (int) (civil & 0x1F));
+    }
+
+    /**
+     * Converts an epoch day to a year, month and day packed in a single long as
+     * year << 9 | month << 5 | day, so the individual getters share a single implementation.
+     */
+    private static long toCivil(int epochDay) {
+        final int z = epochDay + DAYS_0000_TO_1970;
+        final int era = (z >= 0 ? z : z - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        final int dayOfEra = z - era * DAYS_PER_ERA;
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 2 : mp - 10;
+        final int year = yearOfEra + era * 400 + (month <= Calendar.FEBRUARY ? 1 : 0);
+        return ((long) year << 9) | (month << 5) | day;
+    }
+}
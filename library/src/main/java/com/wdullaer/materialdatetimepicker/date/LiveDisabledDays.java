@@ -0,0 +1,172 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseBooleanArray;
+import android.view.Choreographer;
+
+import java.util.Arrays;
+
+/**
+ * Collects the changes reported by a {@link DateConstraintSource} and applies them to an
+ * immutable snapshot of the disabled days at most once per frame. Changes to the same day within
+ * a frame are merged, so a burst of reports costs a single copy of the snapshot. The snapshot is
+ * replaced as a whole, so constraints built on it can be read from any thread.
+ */
+final class LiveDisabledDays implements DateConstraintSource.OnDaysChangedListener {
+    private static final DateSet NO_DAYS = DateSet.of(new int[0]);
+
+    /**
+     * Called on the main thread after a new snapshot has been published
+     */
+    interface OnSnapshotChangedListener {
+        /**
+         * @param monthIndices The month indices (year * 12 + month) of the months in which days
+         *                     changed, in ascending order
+         */
+        void onSnapshotChanged(int[] monthIndices);
+    }
+
+    private final OnSnapshotChangedListener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private volatile DateSet mSnapshot = NO_DAYS;
+
+    // All of the state below is guarded by this
+    // The days reported since the last frame, true if the day is disabled
+    private SparseBooleanArray mPending = new SparseBooleanArray();
+    private boolean mActive;
+    // Whether the next report is the full list of disabled days, and whether the pending one is
+    private boolean mExpectFullState;
+    private boolean mReplace;
+    private boolean mScheduled;
+
+    private final Runnable mScheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    };
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            apply();
+        }
+    };
+
+    LiveDisabledDays(OnSnapshotChangedListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * @return The disabled days as of the last frame
+     */
+    DateSet getSnapshot() {
+        return mSnapshot;
+    }
+
+    /**
+     * Accepts reports from now on. The first report is taken as the full list of disabled days.
+     */
+    synchronized void start() {
+        mActive = true;
+        mExpectFullState = true;
+    }
+
+    /**
+     * Drops the pending reports and ignores any further ones. Must be called on the main thread.
+     */
+    void stop() {
+        synchronized (this) {
+            mActive = false;
+            mScheduled = false;
+            mReplace = false;
+            mPending.clear();
+        }
+        mHandler.removeCallbacks(mScheduleFrame);
+        Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+    }
+
+    @Override
+    public void onDaysChanged(int[] enabledDays, int[] disabledDays) {
+        synchronized (this) {
+            if (!mActive) return;
+            if (mExpectFullState) {
+                // Anything reported before the full list is outdated by it
+                mExpectFullState = false;
+                mReplace = true;
+                mPending.clear();
+            }
+            for (int day : enabledDays) mPending.put(day, false);
+            for (int day : disabledDays) mPending.put(day, true);
+            if (mScheduled) return;
+            mScheduled = true;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            mScheduleFrame.run();
+        } else {
+            mHandler.post(mScheduleFrame);
+        }
+    }
+
+    private void apply() {
+        final SparseBooleanArray pending;
+        final boolean replace;
+        synchronized (this) {
+            if (!mActive || !mScheduled) return;
+            mScheduled = false;
+            pending = mPending;
+            replace = mReplace;
+            mPending = new SparseBooleanArray();
+            mReplace = false;
+        }
+
+        final DateSet old = mSnapshot;
+        final DateSet base = replace ? NO_DAYS : old;
+        int[] added = new int[pending.size()];
+        int[] removed = new int[pending.size()];
+        int addedCount = 0;
+        int removedCount = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            final int day = pending.keyAt(i);
+            final boolean disabled = pending.valueAt(i);
+            if (disabled && !base.contains(day)) added[addedCount++] = day;
+            else if (!disabled && base.contains(day)) removed[removedCount++] = day;
+        }
+        final DateSet snapshot = base.withChanges(
+                Arrays.copyOf(added, addedCount), Arrays.copyOf(removed, removedCount));
+
+        // Only the days that differ from the previous snapshot need to be redrawn
+        final int[] changed;
+        if (replace) {
+            changed = symmetricDifference(old, snapshot);
+        } else {
+            changed = Arrays.copyOf(added, addedCount + removedCount);
+            System.arraycopy(removed, 0, changed, addedCount, removedCount);
+        }
+        if (changed.length == 0) return;
+        mSnapshot = snapshot;
+        mListener.onSnapshotChanged(toMonthIndices(changed));
+    }
+
+    private static int[] symmetricDifference(DateSet a, DateSet b) {
+        int[] days = new int[a.size() + b.size()];
+        int count = 0;
+        for (int day : a.toEpochDays()) if (!b.contains(day)) days[count++] = day;
+        for (int day : b.toEpochDays()) if (!a.contains(day)) days[count++] = day;
+        return Arrays.copyOf(days, count);
+    }
+
+    private static int[] toMonthIndices(int[] epochDays) {
+        int[] monthIndices = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            monthIndices[i] = EpochDays.getMonthIndex(epochDays[i]);
+        }
+        Arrays.sort(monthIndices);
+        int count = 0;
+        for (int i = 0; i < monthIndices.length; i++) {
+            if (count == 0 || monthIndices[i] != monthIndices[count - 1]) monthIndices[count++] = monthIndices[i];
+        }
+        return Arrays.copyOf(monthIndices, count);
+    }
+}
@@ -0,0 +1,64 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * A {@link DateConstraint} that keeps the masks of a limited number of recently used months of
+ * another constraint. Create one with {@link DateConstraints#memoize}. All methods are
+ * thread safe.
+ */
+public final class MemoizedDateConstraint implements DateConstraint {
+    private final DateConstraint mConstraint;
+    private final int[] mMonthIndices;
+    private final int[] mMasks;
+    // 0 for an empty slot
+    private final long[] mLastUse;
+    private long mClock;
+
+    MemoizedDateConstraint(DateConstraint constraint, int maxMonths) {
+        if (maxMonths < 1) {
+            throw new IllegalArgumentException("At least one month has to be kept");
+        }
+        mConstraint = constraint;
+        mMonthIndices = new int[maxMonths];
+        mMasks = new int[maxMonths];
+        mLastUse = new long[maxMonths];
+    }
+
+    @Override
+    public synchronized int getMonthMask(int year, int month) {
+        final int monthIndex = DateBounds.getMonthIndex(year, month);
+        int victim = 0;
+        for (int i = 0; i < mMonthIndices.length; i++) {
+            if (mLastUse[i] != 0 && mMonthIndices[i] == monthIndex) {
+                mLastUse[i] = ++mClock;
+                return mMasks[i];
+            }
+            if (mLastUse[i] < mLastUse[victim]) victim = i;
+        }
+        final int mask = mConstraint.getMonthMask(year, month);
+        mMonthIndices[victim] = monthIndex;
+        mMasks[victim] = mask;
+        mLastUse[victim] = ++mClock;
+        return mask;
+    }
+
+    /**
+     * Forgets every month, so they are evaluated again the next time they are used
+     */
+    public synchronized void invalidate() {
+        for (int i = 0; i < mLastUse.length; i++) {
+            mLastUse[i] = 0;
+        }
+    }
+
+    /**
+     * Forgets a single month, so it is evaluated again the next time it is used
+     * @param year The year
+     * @param month The month (0-11)
+     */
+    public synchronized void invalidate(int year, int month) {
+        final int monthIndex = DateBounds.getMonthIndex(year, month);
+        for (int i = 0; i < mMonthIndices.length; i++) {
+            if (mMonthIndices[i] == monthIndex) mLastUse[i] = 0;
+        }
+    }
+}
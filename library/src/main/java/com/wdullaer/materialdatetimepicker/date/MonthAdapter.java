@@ -16,22 +16,21 @@
 
 package com.wdullaer.materialdatetimepicker.date;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
-import android.view.View;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
 import android.view.ViewGroup;
-import android.widget.AbsListView.LayoutParams;
-import android.widget.BaseAdapter;
 
 import com.wdullaer.materialdatetimepicker.date.MonthView.OnDayClickListener;
 
 import java.util.Calendar;
-import java.util.HashMap;
+import java.util.List;
 
 /**
  * An adapter for a list of {@link MonthView} items.
  */
-public abstract class MonthAdapter extends BaseAdapter implements OnDayClickListener {
+public abstract class MonthAdapter extends RecyclerView.Adapter<MonthAdapter.MonthViewHolder>
+        implements OnDayClickListener {
 
     private static final String TAG = "SimpleMonthAdapter";
 
@@ -39,25 +38,34 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
     protected final DatePickerController mController;
 
     private CalendarDay mSelectedDay;
+    private final MonthParams mMonthParams = new MonthParams();
+    private final MonthRenderCache mRenderCache;
+    private final MonthModelLoader mModelLoader;
 
     protected static int WEEK_7_OVERHANG_HEIGHT = 7;
     protected static final int MONTHS_IN_YEAR = 12;
+    protected static final int VIEW_TYPE_MONTH = 0;
+    // Payload of a rebind that only moves the selection within a month
+    private static final Object PAYLOAD_SELECTION = new Object();
 
     /**
-     * A convenience class to represent a specific date.
+     * A convenience class to represent a specific date. Instances are immutable, so they can be
+     * shared freely, and can be converted to and from an epoch day without a Calendar.
      */
-    public static class CalendarDay {
-        private Calendar calendar;
-        int year;
-        int month;
-        int day;
+    public static class CalendarDay implements Comparable<CalendarDay> {
+        final int year;
+        final int month;
+        final int day;
 
         public CalendarDay() {
-            setTime(System.currentTimeMillis());
+            this(System.currentTimeMillis());
         }
 
         public CalendarDay(long timeInMillis) {
-            setTime(timeInMillis);
+            final int epochDay = EpochDays.ofMillis(timeInMillis);
+            year = EpochDays.getYear(epochDay);
+            month = EpochDays.getMonth(epochDay);
+            day = EpochDays.getDay(epochDay);
         }
 
         public CalendarDay(Calendar calendar) {
@@ -67,29 +75,21 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
         }
 
         public CalendarDay(int year, int month, int day) {
-            setDay(year, month, day);
-        }
-
-        public void set(CalendarDay date) {
-            year = date.year;
-            month = date.month;
-            day = date.day;
-        }
-
-        public void setDay(int year, int month, int day) {
             this.year = year;
             this.month = month;
             this.day = day;
         }
 
-        private void setTime(long timeInMillis) {
-            if (calendar == null) {
-                calendar = Calendar.getInstance();
-            }
-            calendar.setTimeInMillis(timeInMillis);
-            month = calendar.get(Calendar.MONTH);
-            year = calendar.get(Calendar.YEAR);
-            day = calendar.get(Calendar.DAY_OF_MONTH);
+        /**
+         * @param epochDay The number of days since 1970-01-01
+         * @return A CalendarDay representing the given epoch day
+         */
+        public static CalendarDay fromEpochDay(int epochDay) {
+            return new CalendarDay(
+                    EpochDays.getYear(epochDay),
+                    EpochDays.getMonth(epochDay),
+                    EpochDays.getDay(epochDay)
+            );
         }
 
         public int getYear() {
@@ -103,24 +103,76 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
         public int getDay() {
             return day;
         }
+
+        /**
+         * @return The number of days between 1970-01-01 and this day
+         */
+        public int toEpochDay() {
+            return EpochDays.of(year, month, day);
+        }
+
+        @Override
+        public int compareTo(@NonNull CalendarDay other) {
+            if (year != other.year) return year < other.year ? -1 : 1;
+            if (month != other.month) return month < other.month ? -1 : 1;
+            if (day != other.day) return day < other.day ? -1 : 1;
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CalendarDay)) return false;
+            CalendarDay other = (CalendarDay) o;
+            return year == other.year && month == other.month && day == other.day;
+        }
+
+        @Override
+        public int hashCode() {
+            return toEpochDay();
+        }
     }
 
     public MonthAdapter(Context context,
             DatePickerController controller) {
         mContext = context;
         mController = controller;
+        mRenderCache = controller.isMonthRenderCacheEnabled()
+                ? new MonthRenderCache(MonthRenderCache.DEFAULT_MAX_MONTHS) : null;
+        mModelLoader = new MonthModelLoader(context, controller);
+        setHasStableIds(true);
         init();
         setSelectedDay(mController.getSelectedDay());
     }
 
     /**
-     * Updates the selected day and related parameters.
+     * Updates the selected day and related parameters. Only the months containing the previously
+     * and the newly selected day are updated, and only the cells of those two days are redrawn.
      *
      * @param day The day to highlight
      */
     public void setSelectedDay(CalendarDay day) {
+        final CalendarDay previousDay = mSelectedDay;
         mSelectedDay = day;
-        notifyDataSetChanged();
+        if (previousDay != null && previousDay.equals(day)) return;
+
+        if (previousDay != null) notifySelectionChanged(previousDay);
+        if (previousDay == null || previousDay.year != day.year || previousDay.month != day.month) {
+            notifySelectionChanged(day);
+        }
+    }
+
+    private void notifySelectionChanged(CalendarDay day) {
+        final int position = getPositionForMonth(day.year, day.month);
+        if (position >= 0 && position < getItemCount()) notifyItemChanged(position, PAYLOAD_SELECTION);
+    }
+
+    /**
+     * Drops the recorded drawing of every month, if the render cache is enabled. Months whose
+     * state changed are redrawn anyway, this is only needed when something outside of the
+     * month state changes.
+     */
+    public void invalidateRenderCache() {
+        if (mRenderCache != null) mRenderCache.invalidate();
     }
 
     @SuppressWarnings("unused")
@@ -132,62 +184,96 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
      * Set up the gesture detector and selected time
      */
     protected void init() {
-        mSelectedDay = new CalendarDay(System.currentTimeMillis());
+        mSelectedDay = CalendarDay.fromEpochDay(mController.getTodayEpochDay());
     }
 
     @Override
-    public int getCount() {
-        Calendar endDate = mController.getEndDate();
-        Calendar startDate = mController.getStartDate();
-        int endMonth = endDate.get(Calendar.YEAR) * MONTHS_IN_YEAR + endDate.get(Calendar.MONTH);
-        int startMonth = startDate.get(Calendar.YEAR) * MONTHS_IN_YEAR + startDate.get(Calendar.MONTH);
-        return endMonth - startMonth + 1;
-        //return ((mController.getMaxYear() - mController.getMinYear()) + 1) * MONTHS_IN_YEAR;
+    public int getItemCount() {
+        if (mController.shouldSkipEmptyMonths()) {
+            return mController.getSelectableDaySummary().getNonEmptyMonthCount();
+        }
+        return mController.getDateBounds().getMonthCount();
     }
 
-    @Override
-    public Object getItem(int position) {
-        return null;
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The position of the given month in this adapter. When empty months are skipped,
+     * this is negative for a month without selectable days.
+     */
+    public int getPositionForMonth(int year, int month) {
+        return getPositionForMonthIndex(DateBounds.getMonthIndex(year, month));
+    }
+
+    private int getPositionForMonthIndex(int monthIndex) {
+        if (mController.shouldSkipEmptyMonths()) {
+            return mController.getSelectableDaySummary().indexOfNonEmptyMonth(monthIndex);
+        }
+        return monthIndex - mController.getDateBounds().getFirstMonthIndex();
+    }
+
+    /**
+     * @param position A position in this adapter
+     * @return The month index (year * 12 + month) of the month shown at the given position
+     */
+    public int getMonthIndexForPosition(int position) {
+        if (mController.shouldSkipEmptyMonths()) {
+            return mController.getSelectableDaySummary().getNonEmptyMonth(position);
+        }
+        return mController.getDateBounds().getFirstMonthIndex() + position;
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return getMonthIndexForPosition(position);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_MONTH;
     }
 
     @Override
-    public boolean hasStableIds() {
+    public MonthViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        MonthView v = createMonthView(mContext);
+        // Set up the new view
+        RecyclerView.LayoutParams params = new RecyclerView.LayoutParams(
+                RecyclerView.LayoutParams.MATCH_PARENT, RecyclerView.LayoutParams.MATCH_PARENT);
+        v.setLayoutParams(params);
+        v.setClickable(true);
+        v.setOnDayClickListener(this);
+        v.setRenderCache(mRenderCache);
+        return new MonthViewHolder(v);
+    }
+
+    @Override
+    public void onBindViewHolder(MonthViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty() || !onlySelectionChanged(payloads)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        final int monthIndex = getMonthIndexForPosition(position);
+        final int month = monthIndex % MONTHS_IN_YEAR;
+        final int year = monthIndex / MONTHS_IN_YEAR;
+        holder.mMonthView.updateSelectedDay(isSelectedDayInMonth(year, month)
+                ? mSelectedDay.day : MonthParams.UNSET);
+    }
+
+    private static boolean onlySelectionChanged(List<Object> payloads) {
+        for (int i = 0; i < payloads.size(); i++) {
+            if (payloads.get(i) != PAYLOAD_SELECTION) return false;
+        }
         return true;
     }
 
-    @SuppressLint("NewApi")
-    @SuppressWarnings("unchecked")
     @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        MonthView v;
-        HashMap<String, Integer> drawingParams = null;
-        if (convertView != null) {
-            v = (MonthView) convertView;
-            // We store the drawing parameters in the view so it can be recycled
-            drawingParams = (HashMap<String, Integer>) v.getTag();
-        } else {
-            v = createMonthView(mContext);
-            // Set up the new view
-            LayoutParams params = new LayoutParams(
-                    LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
-            v.setLayoutParams(params);
-            v.setClickable(true);
-            v.setOnDayClickListener(this);
-        }
-        if (drawingParams == null) {
-            drawingParams = new HashMap<>();
-        }
-        drawingParams.clear();
-
-        final int month = (position + mController.getStartDate().get(Calendar.MONTH)) % MONTHS_IN_YEAR;
-        final int year = (position + mController.getStartDate().get(Calendar.MONTH)) / MONTHS_IN_YEAR + mController.getMinYear();
-
-        int selectedDay = -1;
+    public void onBindViewHolder(MonthViewHolder holder, int position) {
+        final MonthView v = holder.mMonthView;
+        final int monthIndex = getMonthIndexForPosition(position);
+        final int month = monthIndex % MONTHS_IN_YEAR;
+        final int year = monthIndex / MONTHS_IN_YEAR;
+
+        int selectedDay = MonthParams.UNSET;
         if (isSelectedDayInMonth(year, month)) {
             selectedDay = mSelectedDay.day;
         }
@@ -196,17 +282,98 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
         // height/number of weeks before being displayed.
         v.reuse();
 
-        drawingParams.put(MonthView.VIEW_PARAMS_SELECTED_DAY, selectedDay);
-        drawingParams.put(MonthView.VIEW_PARAMS_YEAR, year);
-        drawingParams.put(MonthView.VIEW_PARAMS_MONTH, month);
-        drawingParams.put(MonthView.VIEW_PARAMS_WEEK_START, mController.getFirstDayOfWeek());
-        v.setMonthParams(drawingParams);
+        // Attach the model of this month, which is usually computed ahead of time, and start
+        // working on the months around it
+        final int today = mController.getTodayEpochDay();
+        final MonthModel model = mModelLoader.get(monthIndex, today);
+        mModelLoader.prefetch(monthIndex, today);
+
+        // The view copies the values out, so the same params can be reused for every bind
+        mMonthParams.setMonth(year, month)
+                .setSelectedDay(selectedDay)
+                .setWeekStart(mController.getFirstDayOfWeek())
+                .setTodayEpochDay(today)
+                .setModel(model);
+        v.setMonthParams(mMonthParams);
         v.invalidate();
-        return v;
+    }
+
+    /**
+     * Drops the precomputed month models. Call this whenever the constraints of the picker change.
+     */
+    public void invalidateMonthModels() {
+        mModelLoader.invalidate();
+    }
+
+    /**
+     * Recomputes and rebinds a single month, because its constraints changed
+     * @param monthIndex The month index (year * 12 + month) of the month
+     */
+    public void invalidateMonth(int monthIndex) {
+        mModelLoader.invalidate(monthIndex);
+        final int position = getPositionForMonthIndex(monthIndex);
+        if (position >= 0 && position < getItemCount()) notifyItemChanged(position);
+    }
+
+    /**
+     * Recomputes and rebinds months whose selectable days changed. When empty months are skipped,
+     * a month that became empty is removed from the list and a month that stopped being empty is
+     * inserted, so the positions of the other months stay consistent.
+     * @param monthIndices The month indices (year * 12 + month) of the months, in ascending order
+     * @param oldSummary The summary from before the change, null if empty months aren't skipped
+     */
+    public void invalidateMonths(int[] monthIndices, SelectableDaySummary oldSummary) {
+        final SelectableDaySummary summary = oldSummary != null && mController.shouldSkipEmptyMonths()
+                ? mController.getSelectableDaySummary() : null;
+        for (int monthIndex : monthIndices) {
+            if (summary != null) {
+                final boolean wasShown = oldSummary.indexOfNonEmptyMonth(monthIndex) >= 0;
+                final boolean isShown = summary.indexOfNonEmptyMonth(monthIndex) >= 0;
+                if (wasShown != isShown) {
+                    mModelLoader.invalidate(monthIndex);
+                    // The months before this one are already at their new positions
+                    final int position = summary.countNonEmptyMonthsBefore(monthIndex);
+                    if (isShown) notifyItemInserted(position);
+                    else notifyItemRemoved(position);
+                    continue;
+                }
+            }
+            invalidateMonth(monthIndex);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        mModelLoader.cancel();
+    }
+
+    /**
+     * Rebinds the months, because today changed. The month models are keyed by today, so
+     * they are recomputed as the months are bound.
+     */
+    public void onTodayChanged() {
+        notifyDataSetChanged();
     }
 
     public abstract MonthView createMonthView(Context context);
 
+    /**
+     * The ViewHolder of a single month in the list
+     */
+    public static class MonthViewHolder extends RecyclerView.ViewHolder {
+        final MonthView mMonthView;
+
+        public MonthViewHolder(MonthView monthView) {
+            super(monthView);
+            mMonthView = monthView;
+        }
+
+        public MonthView getMonthView() {
+            return mMonthView;
+        }
+    }
+
     private boolean isSelectedDayInMonth(int year, int month) {
         return mSelectedDay.year == year && mSelectedDay.month == month;
     }
@@ -0,0 +1,151 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.content.Context;
+
+/**
+ * An immutable snapshot of everything a {@link MonthView} needs to know about a month that
+ * doesn't depend on the selection: its layout, today and the state of every day under the
+ * constraints of the picker. Models can be computed on any thread, see {@link MonthModelLoader}.
+ */
+public final class MonthModel {
+    private final int mMonthIndex;
+    private final int mYear;
+    private final int mMonth;
+    private final int mNumDays;
+    private final int mDayOfWeekStart;
+    private final int mTodayEpochDay;
+    private final int mToday;
+    private final byte[] mDayStates;
+    private final String mTitle;
+    private final int mVersion;
+
+    private MonthModel(int monthIndex, int numDays, int dayOfWeekStart, int todayEpochDay,
+                       int today, byte[] dayStates, String title, int version) {
+        mMonthIndex = monthIndex;
+        mYear = monthIndex / MonthAdapter.MONTHS_IN_YEAR;
+        mMonth = monthIndex % MonthAdapter.MONTHS_IN_YEAR;
+        mNumDays = numDays;
+        mDayOfWeekStart = dayOfWeekStart;
+        mTodayEpochDay = todayEpochDay;
+        mToday = today;
+        mDayStates = dayStates;
+        mTitle = title;
+        mVersion = version;
+    }
+
+    /**
+     * Computes the model of a month. This only calls thread safe methods of the controller,
+     * so it can run on a background thread.
+     * @param context The context used to format the title
+     * @param controller The controller holding the constraints
+     * @param monthIndex The month index (year * 12 + month) of the month
+     * @param todayEpochDay The epoch day of today
+     * @param version The version of the constraints this model is computed for
+     * @return A new MonthModel
+     */
+    static MonthModel compute(Context context, DatePickerController controller, int monthIndex,
+                              int todayEpochDay, int version) {
+        final int year = monthIndex / MonthAdapter.MONTHS_IN_YEAR;
+        final int month = monthIndex % MonthAdapter.MONTHS_IN_YEAR;
+        final int firstEpochDay = EpochDays.of(year, month, 1);
+        final int numDays = EpochDays.getDaysInMonth(year, month);
+        int today = todayEpochDay - firstEpochDay + 1;
+        if (today < 1 || today > numDays) today = -1;
+
+        byte[] dayStates = new byte[numDays];
+        computeDayStates(controller, year, month, numDays, today, dayStates);
+        return new MonthModel(monthIndex, numDays, EpochDays.getDayOfWeek(firstEpochDay),
+                todayEpochDay, today, dayStates, DateLabelCache.getMonthTitle(context, year, month),
+                version);
+    }
+
+    /**
+     * Runs the constraint checks for every day of the month and stores the resulting
+     * DAY_STATE_* flags of {@link MonthView}, except for the selection, in the given array
+     * @param today The day of the month that is today, or -1 if today is in a different month
+     * @param dayStates The array to fill, indexed by day - 1
+     */
+    static void computeDayStates(DatePickerController controller, int year, int month,
+                                 int numDays, int today, byte[] dayStates) {
+        final boolean pending = controller.isAvailabilityPending(year, month);
+        final int selectable = controller.getSelectableDayMask(year, month);
+        for (int day = 1; day <= numDays; day++) {
+            byte state = 0;
+            if (pending) state |= MonthView.DAY_STATE_PENDING;
+            if ((selectable & (1 << (day - 1))) == 0) state |= MonthView.DAY_STATE_DISABLED;
+            if (controller.isHighlighted(year, month, day)) state |= MonthView.DAY_STATE_HIGHLIGHTED;
+            if (today == day) state |= MonthView.DAY_STATE_TODAY;
+            dayStates[day - 1] = state;
+        }
+    }
+
+    /**
+     * @return The month index (year * 12 + month) of this month
+     */
+    public int getMonthIndex() {
+        return mMonthIndex;
+    }
+
+    public int getYear() {
+        return mYear;
+    }
+
+    public int getMonth() {
+        return mMonth;
+    }
+
+    /**
+     * @return The number of days in this month
+     */
+    public int getNumDays() {
+        return mNumDays;
+    }
+
+    /**
+     * @return The day of the week of the first of the month, {@link java.util.Calendar#SUNDAY}
+     * through {@link java.util.Calendar#SATURDAY}
+     */
+    public int getDayOfWeekStart() {
+        return mDayOfWeekStart;
+    }
+
+    /**
+     * @return The epoch day that was today when this model was computed
+     */
+    public int getTodayEpochDay() {
+        return mTodayEpochDay;
+    }
+
+    /**
+     * @return The day of the month that is today, or -1 if today is not in this month
+     */
+    public int getToday() {
+        return mToday;
+    }
+
+    /**
+     * @param day The day of the month
+     * @return The DAY_STATE_* flags of the given day, without the selection
+     */
+    public byte getDayState(int day) {
+        return mDayStates[day - 1];
+    }
+
+    /**
+     * Copies the day states of this month into the given array, indexed by day - 1
+     */
+    void copyDayStates(byte[] dayStates) {
+        System.arraycopy(mDayStates, 0, dayStates, 0, mNumDays);
+    }
+
+    /**
+     * @return The localized title of this month
+     */
+    public String getTitle() {
+        return mTitle;
+    }
+
+    int getVersion() {
+        return mVersion;
+    }
+}
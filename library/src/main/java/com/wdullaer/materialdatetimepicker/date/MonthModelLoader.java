@@ -0,0 +1,171 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseArray;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computes {@link MonthModel}s for the months around the one being bound on a background thread,
+ * so binding a month that scrolls into view usually only has to attach a ready model.
+ *
+ * Every batch of models is published on the main thread in a single step, and only if the
+ * constraints haven't changed since the batch was requested: {@link #invalidate()} bumps the
+ * version, which drops the published models and any batch that is still being computed. All
+ * methods must be called on the main thread.
+ */
+final class MonthModelLoader {
+    // How many months on either side of the bound month are computed ahead of time
+    static final int PREFETCH_MONTHS = 3;
+    // Published models further than this from the last bound month are dropped
+    private static final int MAX_DISTANCE = 2 * PREFETCH_MONTHS;
+
+    private static ExecutorService sExecutor;
+
+    private final Context mContext;
+    private final DatePickerController mController;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final SparseArray<MonthModel> mModels = new SparseArray<>();
+
+    private int mVersion;
+    // Bumped when a single month is invalidated, to drop the batch that is being computed
+    private int mGeneration;
+    private int mRequestedMonthIndex = Integer.MIN_VALUE;
+    private int mRequestedVersion = -1;
+    private int mRequestedToday;
+    private Future<?> mPending;
+
+    MonthModelLoader(Context context, DatePickerController controller) {
+        mContext = context.getApplicationContext();
+        mController = controller;
+    }
+
+    /**
+     * @param monthIndex The month index (year * 12 + month) of the month
+     * @param todayEpochDay The epoch day of today
+     * @return The model of the given month, computed synchronously if no up to date model has
+     * been published yet
+     */
+    MonthModel get(int monthIndex, int todayEpochDay) {
+        MonthModel model = mModels.get(monthIndex);
+        if (model == null || model.getVersion() != mVersion || model.getTodayEpochDay() != todayEpochDay) {
+            model = MonthModel.compute(mContext, mController, monthIndex, todayEpochDay, mVersion);
+            mModels.put(monthIndex, model);
+        }
+        return model;
+    }
+
+    /**
+     * Starts computing the models of the months around the given month in the background, unless
+     * that is already done or in progress
+     * @param monthIndex The month index (year * 12 + month) of the month that was just bound
+     * @param todayEpochDay The epoch day of today
+     */
+    void prefetch(int monthIndex, final int todayEpochDay) {
+        if (monthIndex == mRequestedMonthIndex && mVersion == mRequestedVersion
+                && todayEpochDay == mRequestedToday) {
+            return;
+        }
+        mRequestedMonthIndex = monthIndex;
+        mRequestedVersion = mVersion;
+        mRequestedToday = todayEpochDay;
+        trim(monthIndex);
+
+        // Only compute the months that are missing, within the bounds of the picker
+        final DateBounds bounds = mController.getDateBounds();
+        final int first = Math.max(monthIndex - PREFETCH_MONTHS, bounds.getFirstMonthIndex());
+        final int last = Math.min(monthIndex + PREFETCH_MONTHS, bounds.getLastMonthIndex());
+        final int[] missing = new int[Math.max(last - first + 1, 0)];
+        int count = 0;
+        for (int i = first; i <= last; i++) {
+            MonthModel model = mModels.get(i);
+            if (model == null || model.getVersion() != mVersion || model.getTodayEpochDay() != todayEpochDay) {
+                missing[count++] = i;
+            }
+        }
+        if (count == 0) return;
+
+        if (mPending != null) mPending.cancel(true);
+        final int version = mVersion;
+        final int generation = mGeneration;
+        final int missingCount = count;
+        mPending = getExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                final MonthModel[] models = new MonthModel[missingCount];
+                for (int i = 0; i < missingCount; i++) {
+                    if (Thread.currentThread().isInterrupted()) return;
+                    models[i] = MonthModel.compute(mContext, mController, missing[i], todayEpochDay, version);
+                }
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        publish(models, version, generation);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops all models, because the constraints changed
+     */
+    void invalidate() {
+        mVersion++;
+        mModels.clear();
+        if (mPending != null) {
+            mPending.cancel(true);
+            mPending = null;
+        }
+    }
+
+    /**
+     * Stops any background work, for instance because the list was detached
+     */
+    void cancel() {
+        if (mPending != null) {
+            mPending.cancel(true);
+            mPending = null;
+        }
+        mRequestedMonthIndex = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Drops the model of a single month, because its constraints changed
+     * @param monthIndex The month index (year * 12 + month) of the month
+     */
+    void invalidate(int monthIndex) {
+        mModels.remove(monthIndex);
+        // The batch in flight may have been computed with the old state of this month
+        mGeneration++;
+        mRequestedMonthIndex = Integer.MIN_VALUE;
+    }
+
+    private void publish(MonthModel[] models, int version, int generation) {
+        if (version != mVersion || generation != mGeneration) return;
+        for (MonthModel model : models) {
+            // Don't replace a model that was computed synchronously in the meantime
+            MonthModel current = mModels.get(model.getMonthIndex());
+            if (current == null || current.getTodayEpochDay() != model.getTodayEpochDay()) {
+                mModels.put(model.getMonthIndex(), model);
+            }
+        }
+    }
+
+    private void trim(int monthIndex) {
+        for (int i = mModels.size() - 1; i >= 0; i--) {
+            if (Math.abs(mModels.keyAt(i) - monthIndex) > MAX_DISTANCE) mModels.removeAt(i);
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new BackgroundThreadFactory("MonthModelLoader"));
+        }
+        return sExecutor;
+    }
+}
@@ -0,0 +1,110 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * The parameters a {@link MonthView} needs to display a month. Unlike the
+ * {@link MonthView#VIEW_PARAMS_HEIGHT} style map this only holds primitives, so a single instance
+ * can be filled in place and passed to {@link MonthView#setMonthParams(MonthParams)} on every bind
+ * without allocating.
+ */
+public class MonthParams {
+    /**
+     * Marks an optional parameter as not set: the view keeps its current value, or uses its default
+     */
+    public static final int UNSET = -1;
+
+    int year;
+    int month;
+    int selectedDay = UNSET;
+    int weekStart = UNSET;
+    int height = UNSET;
+    int todayEpochDay = Integer.MIN_VALUE;
+    MonthModel model;
+
+    /**
+     * @param year The year to display
+     * @param month The month to display (0-11)
+     * @return this
+     */
+    public MonthParams setMonth(int year, int month) {
+        this.year = year;
+        this.month = month;
+        return this;
+    }
+
+    /**
+     * @param selectedDay The selected day of the month, or {@link #UNSET} if the selected day is
+     *                    not in this month
+     * @return this
+     */
+    public MonthParams setSelectedDay(int selectedDay) {
+        this.selectedDay = selectedDay;
+        return this;
+    }
+
+    /**
+     * @param weekStart The first day of the week, {@link java.util.Calendar#SUNDAY} through
+     *                  {@link java.util.Calendar#SATURDAY}, or {@link #UNSET} to use the default
+     *                  of the current locale
+     * @return this
+     */
+    public MonthParams setWeekStart(int weekStart) {
+        this.weekStart = weekStart;
+        return this;
+    }
+
+    /**
+     * @param height The height of a week row in pixels, or {@link #UNSET} to keep the current height
+     * @return this
+     */
+    public MonthParams setHeight(int height) {
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * @param todayEpochDay The epoch day of today, used to mark today in the month
+     * @return this
+     */
+    public MonthParams setTodayEpochDay(int todayEpochDay) {
+        this.todayEpochDay = todayEpochDay;
+        return this;
+    }
+
+    /**
+     * @param model A precomputed model of the month, or null to let the view compute the state of
+     *              every day itself. The model is ignored if it describes a different month.
+     * @return this
+     */
+    public MonthParams setModel(MonthModel model) {
+        this.model = model;
+        return this;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public int getSelectedDay() {
+        return selectedDay;
+    }
+
+    public int getWeekStart() {
+        return weekStart;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTodayEpochDay() {
+        return todayEpochDay;
+    }
+
+    public MonthModel getModel() {
+        return model;
+    }
+}
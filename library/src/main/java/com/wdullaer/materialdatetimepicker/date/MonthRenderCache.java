@@ -0,0 +1,125 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.graphics.Picture;
+
+/**
+ * Keeps the drawing commands of recently drawn months as {@link Picture} recordings, so a month
+ * that scrolls back into view can be replayed instead of drawn again.
+ *
+ * A recording is only replayed when the view has the same size and week start and the month has
+ * the same day states (selection, constraints, highlights and today) as when it was recorded, so
+ * any change to a month automatically falls through to a fresh recording. The cache holds a fixed
+ * number of recordings and evicts the least recently used one. Evicted {@link Picture} instances
+ * are reused for the next recording.
+ */
+final class MonthRenderCache {
+    static final int DEFAULT_MAX_MONTHS = 24;
+    private static final int MAX_DAYS_IN_MONTH = 31;
+
+    private final int[] mMonthIndex;
+    private final int[] mWidth;
+    private final int[] mHeight;
+    private final int[] mWeekStart;
+    private final int[] mNumCells;
+    private final byte[][] mDayStates;
+    private final Picture[] mPictures;
+    private final boolean[] mValid;
+    private final long[] mLastUse;
+    private long mClock;
+    // The day number labels the recordings were made with, used to detect locale changes
+    private String[] mDayNumbers;
+
+    MonthRenderCache(int maxMonths) {
+        mMonthIndex = new int[maxMonths];
+        mWidth = new int[maxMonths];
+        mHeight = new int[maxMonths];
+        mWeekStart = new int[maxMonths];
+        mNumCells = new int[maxMonths];
+        mDayStates = new byte[maxMonths][MAX_DAYS_IN_MONTH];
+        mPictures = new Picture[maxMonths];
+        mValid = new boolean[maxMonths];
+        mLastUse = new long[maxMonths];
+    }
+
+    /**
+     * @return The recording of the given month, or null if there is none that matches the given
+     * state
+     */
+    Picture get(int monthIndex, int width, int height, int weekStart, byte[] dayStates, int numCells) {
+        final int slot = indexOf(monthIndex);
+        if (slot < 0 || mWidth[slot] != width || mHeight[slot] != height
+                || mWeekStart[slot] != weekStart || mNumCells[slot] != numCells) {
+            return null;
+        }
+        final byte[] recordedStates = mDayStates[slot];
+        for (int i = 0; i < numCells; i++) {
+            if (recordedStates[i] != dayStates[i]) return null;
+        }
+        mLastUse[slot] = ++mClock;
+        return mPictures[slot];
+    }
+
+    /**
+     * Reserves a slot for the given month and returns a Picture to record it in. The recording
+     * has to be finished before the next call to this cache.
+     */
+    Picture obtain(int monthIndex, int width, int height, int weekStart, byte[] dayStates, int numCells) {
+        int slot = indexOf(monthIndex);
+        if (slot < 0) {
+            slot = 0;
+            for (int i = 0; i < mValid.length; i++) {
+                if (!mValid[i]) {
+                    slot = i;
+                    break;
+                }
+                if (mLastUse[i] < mLastUse[slot]) slot = i;
+            }
+        }
+        mValid[slot] = true;
+        mMonthIndex[slot] = monthIndex;
+        mWidth[slot] = width;
+        mHeight[slot] = height;
+        mWeekStart[slot] = weekStart;
+        mNumCells[slot] = numCells;
+        System.arraycopy(dayStates, 0, mDayStates[slot], 0, numCells);
+        mLastUse[slot] = ++mClock;
+        if (mPictures[slot] == null) mPictures[slot] = new Picture();
+        return mPictures[slot];
+    }
+
+    /**
+     * Drops every recording if the labels have changed since the last recording
+     * @param dayNumbers The current labels of the day numbers, see {@link DateLabelCache#getDayNumbers()}
+     */
+    void validateLabels(String[] dayNumbers) {
+        if (dayNumbers != mDayNumbers) {
+            mDayNumbers = dayNumbers;
+            invalidate();
+        }
+    }
+
+    /**
+     * Drops every recording, for instance because the theme changed
+     */
+    void invalidate() {
+        for (int i = 0; i < mValid.length; i++) {
+            mValid[i] = false;
+        }
+    }
+
+    /**
+     * Drops the recording of a single month
+     * @param monthIndex The month index (year * 12 + month) of the month
+     */
+    void invalidate(int monthIndex) {
+        final int slot = indexOf(monthIndex);
+        if (slot >= 0) mValid[slot] = false;
+    }
+
+    private int indexOf(int monthIndex) {
+        for (int i = 0; i < mValid.length; i++) {
+            if (mValid[i] && mMonthIndex[i] == monthIndex) return i;
+        }
+        return -1;
+    }
+}
@@ -22,6 +22,7 @@ import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
 import android.graphics.Paint.Style;
+import android.graphics.Picture;
 import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.os.Build;
@@ -43,12 +44,9 @@ import com.wdullaer.materialdatetimepicker.TypefaceHelper;
 import com.wdullaer.materialdatetimepicker.date.MonthAdapter.CalendarDay;
 
 import java.security.InvalidParameterException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Formatter;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * A calendar-like view displaying a specified month and the appropriate selectable day numbers
@@ -111,6 +109,16 @@ public abstract class MonthView extends View {
 
     private static final int SELECTED_CIRCLE_ALPHA = 255;
 
+    /**
+     * Flags describing the state of a single day, see {@link #mDayStates}
+     */
+    protected static final byte DAY_STATE_DISABLED = 1;
+    protected static final byte DAY_STATE_HIGHLIGHTED = 1 << 1;
+    protected static final byte DAY_STATE_SELECTED = 1 << 2;
+    protected static final byte DAY_STATE_TODAY = 1 << 3;
+    // The availability of the month is still being loaded
+    protected static final byte DAY_STATE_PENDING = 1 << 4;
+
     protected static int DAY_SEPARATOR_WIDTH = 1;
     protected static int MINI_DAY_NUMBER_TEXT_SIZE;
     protected static int MONTH_LABEL_TEXT_SIZE;
@@ -130,13 +138,11 @@ public abstract class MonthView extends View {
     private String mMonthTitleTypeface;
 
     protected Paint mMonthNumPaint;
+    protected Paint mMonthNumBoldPaint;
     protected Paint mMonthTitlePaint;
     protected Paint mSelectedCirclePaint;
     protected Paint mMonthDayLabelPaint;
 
-    private final Formatter mFormatter;
-    private final StringBuilder mStringBuilder;
-
     // The Julian day of the first day displayed by this item
     protected int mFirstJulianDay = -1;
     // The month of the first day in this week
@@ -167,8 +173,35 @@ public abstract class MonthView extends View {
     protected int mSelectedLeft = -1;
     // The right edge of the selected day
     protected int mSelectedRight = -1;
+    // The localized labels of the day numbers, indexed by day - 1
+    protected String[] mDayNumbers;
+    // The DAY_STATE_* flags of every day in this month, indexed by day - 1. These are computed
+    // when the month is bound, so drawing doesn't need to query the controller.
+    protected final byte[] mDayStates = new byte[31];
+
+    // The geometry of every day cell, indexed by day - 1. These tables are shared by drawing,
+    // touch handling and accessibility and only recomputed when one of the mGeometry* keys changes.
+    protected final int[] mDayCenterX = new int[31];
+    protected final int[] mDayBaselineY = new int[31];
+    protected final int[] mDayLeft = new int[31];
+    protected final int[] mDayTop = new int[31];
+    protected final int[] mDayRight = new int[31];
+    protected final int[] mDayBottom = new int[31];
+    // The left edge of every column, plus the right edge of the last one
+    private final int[] mColumnEdges = new int[DEFAULT_NUM_DAYS + 1];
+    private int mGeometryWidth = -1;
+    private int mGeometryRowHeight = -1;
+    private int mGeometryDayOffset = -1;
+    private int mGeometryNumCells = -1;
+    private int mGeometryEdgePadding = -1;
 
     private final Calendar mCalendar;
+    // The title of the month, if it was formatted ahead of time
+    private String mMonthTitle;
+    // Optional cache of the recorded drawing of recently drawn months
+    private MonthRenderCache mRenderCache;
+    // Reused to convert the parameters passed through setMonthParams(HashMap)
+    private final MonthParams mLegacyParams = new MonthParams();
     protected final Calendar mDayLabelCalendar;
     private final MonthViewTouchHelper mTouchHelper;
 
@@ -186,6 +219,7 @@ public abstract class MonthView extends View {
     protected int mTodayNumberColor;
     protected int mHighlightedDayTextColor;
     protected int mDisabledDayTextColor;
+    protected int mPendingDayTextColor;
     protected int mMonthTitleColor;
 
     public MonthView(Context context) {
@@ -208,21 +242,20 @@ public abstract class MonthView extends View {
             mDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_normal_dark_theme);
             mMonthDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_month_day_dark_theme);
             mDisabledDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled_dark_theme);
+            mPendingDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_pending_dark_theme);
             mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_highlighted_dark_theme);
         }
         else {
             mDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_normal);
             mMonthDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_month_day);
             mDisabledDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled);
+            mPendingDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_pending);
             mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_highlighted);
         }
         mSelectedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_white);
         mTodayNumberColor = mController.getAccentColor();
         mMonthTitleColor = ContextCompat.getColor(context, R.color.mdtp_white);
 
-        mStringBuilder = new StringBuilder(50);
-        mFormatter = new Formatter(mStringBuilder, Locale.getDefault());
-
         MINI_DAY_NUMBER_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.mdtp_day_number_size);
         MONTH_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.mdtp_month_label_size);
         MONTH_DAY_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.mdtp_month_day_label_text_size);
@@ -323,15 +356,48 @@ public abstract class MonthView extends View {
         mMonthNumPaint.setStyle(Style.FILL);
         mMonthNumPaint.setTextAlign(Align.CENTER);
         mMonthNumPaint.setFakeBoldText(false);
+        mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.NORMAL));
+
+        mMonthNumBoldPaint = new Paint(mMonthNumPaint);
+        mMonthNumBoldPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
+        mDayNumbers = DateLabelCache.getDayNumbers();
+        // Pictures can only be drawn on a hardware accelerated canvas from API 23 onwards
+        if (mRenderCache != null && (Build.VERSION.SDK_INT >= 23 || !canvas.isHardwareAccelerated())) {
+            mRenderCache.validateLabels(mDayNumbers);
+            final int monthIndex = DateBounds.getMonthIndex(mYear, mMonth);
+            final int width = getWidth();
+            final int height = getHeight();
+            Picture picture = mRenderCache.get(monthIndex, width, height, mWeekStart, mDayStates, mNumCells);
+            if (picture == null) {
+                picture = mRenderCache.obtain(monthIndex, width, height, mWeekStart, mDayStates, mNumCells);
+                drawMonth(picture.beginRecording(width, height));
+                picture.endRecording();
+            }
+            canvas.drawPicture(picture);
+        } else {
+            drawMonth(canvas);
+        }
+    }
+
+    private void drawMonth(Canvas canvas) {
         drawMonthTitle(canvas);
         drawMonthDayLabels(canvas);
         drawMonthNums(canvas);
     }
 
+    /**
+     * Sets the cache used to replay the drawing of months that haven't changed since they were
+     * last drawn. Pass null to always draw the month.
+     * @param renderCache The cache, usually shared by all the views of a {@link MonthAdapter}
+     */
+    void setRenderCache(MonthRenderCache renderCache) {
+        mRenderCache = renderCache;
+    }
+
     private int mDayOfWeekStart = 0;
 
     /**
@@ -341,6 +407,9 @@ public abstract class MonthView extends View {
      * which will always default to no focus month if no value is passed in. See
      * {@link #VIEW_PARAMS_HEIGHT} for more info on parameters.
      *
+     * This is a compatibility wrapper around {@link #setMonthParams(MonthParams)}, which doesn't
+     * need to box the values.
+     *
      * @param params A map of the new parameters, see
      *            {@link #VIEW_PARAMS_HEIGHT}
      */
@@ -350,46 +419,59 @@ public abstract class MonthView extends View {
         }
         setTag(params);
         // We keep the current value for any params not present
-        if (params.containsKey(VIEW_PARAMS_HEIGHT)) {
-            mRowHeight = params.get(VIEW_PARAMS_HEIGHT);
+        mLegacyParams.setMonth(params.get(VIEW_PARAMS_YEAR), params.get(VIEW_PARAMS_MONTH))
+                .setHeight(params.containsKey(VIEW_PARAMS_HEIGHT) ? params.get(VIEW_PARAMS_HEIGHT) : MonthParams.UNSET)
+                .setSelectedDay(params.containsKey(VIEW_PARAMS_SELECTED_DAY) ? params.get(VIEW_PARAMS_SELECTED_DAY) : mSelectedDay)
+                .setWeekStart(params.containsKey(VIEW_PARAMS_WEEK_START) ? params.get(VIEW_PARAMS_WEEK_START) : MonthParams.UNSET)
+                .setTodayEpochDay(mController.getTodayEpochDay())
+                .setModel(null);
+        setMonthParams(mLegacyParams);
+    }
+
+    /**
+     * Sets all the parameters for displaying this month. The values are copied out of the params,
+     * so the caller is free to reuse the same instance for the next view.
+     *
+     * @param params The new parameters
+     */
+    public void setMonthParams(MonthParams params) {
+        if (params.height != MonthParams.UNSET) {
+            mRowHeight = params.height;
             if (mRowHeight < MIN_HEIGHT) {
                 mRowHeight = MIN_HEIGHT;
             }
         }
-        if (params.containsKey(VIEW_PARAMS_SELECTED_DAY)) {
-            mSelectedDay = params.get(VIEW_PARAMS_SELECTED_DAY);
-        }
-
-        // Allocate space for caching the day numbers and focus values
-        mMonth = params.get(VIEW_PARAMS_MONTH);
-        mYear = params.get(VIEW_PARAMS_YEAR);
-
-        // Figure out what day today is
-        //final Time today = new Time(Time.getCurrentTimezone());
-        //today.setToNow();
-        final Calendar today = Calendar.getInstance();
-        mHasToday = false;
-        mToday = -1;
-
-        mCalendar.set(Calendar.MONTH, mMonth);
-        mCalendar.set(Calendar.YEAR, mYear);
-        mCalendar.set(Calendar.DAY_OF_MONTH, 1);
-        mDayOfWeekStart = mCalendar.get(Calendar.DAY_OF_WEEK);
-
-        if (params.containsKey(VIEW_PARAMS_WEEK_START)) {
-            mWeekStart = params.get(VIEW_PARAMS_WEEK_START);
+        mSelectedDay = params.selectedDay;
+        mMonth = params.month;
+        mYear = params.year;
+
+        mWeekStart = params.weekStart != MonthParams.UNSET ? params.weekStart : mCalendar.getFirstDayOfWeek();
+
+        final MonthModel model = params.model;
+        if (model != null && model.getYear() == mYear && model.getMonth() == mMonth) {
+            // Everything but the selection has been computed ahead of time
+            mDayOfWeekStart = model.getDayOfWeekStart();
+            mNumCells = model.getNumDays();
+            mToday = model.getToday();
+            mHasToday = mToday != -1;
+            mMonthTitle = model.getTitle();
+            model.copyDayStates(mDayStates);
+            if (mSelectedDay >= 1 && mSelectedDay <= mNumCells) {
+                mDayStates[mSelectedDay - 1] |= DAY_STATE_SELECTED;
+            }
         } else {
-            mWeekStart = mCalendar.getFirstDayOfWeek();
+            final int firstEpochDay = EpochDays.of(mYear, mMonth, 1);
+            mDayOfWeekStart = EpochDays.getDayOfWeek(firstEpochDay);
+            mNumCells = EpochDays.getDaysInMonth(mYear, mMonth);
+
+            // Figure out what day today is
+            final int today = params.todayEpochDay - firstEpochDay + 1;
+            mHasToday = today >= 1 && today <= mNumCells;
+            mToday = mHasToday ? today : -1;
+            mMonthTitle = null;
+            computeDayStates();
         }
 
-        mNumCells = mCalendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-        for (int i = 0; i < mNumCells; i++) {
-            final int day = i + 1;
-            if (sameDay(day, today)) {
-                mHasToday = true;
-                mToday = day;
-            }
-        }
         mNumRows = calculateNumRows();
 
         // Invalidate cached accessibility information.
@@ -397,7 +479,62 @@ public abstract class MonthView extends View {
     }
 
     public void setSelectedDay(int day) {
+        if (mSelectedDay >= 1 && mSelectedDay <= mNumCells) {
+            mDayStates[mSelectedDay - 1] &= ~DAY_STATE_SELECTED;
+        }
         mSelectedDay = day;
+        if (mSelectedDay >= 1 && mSelectedDay <= mNumCells) {
+            mDayStates[mSelectedDay - 1] |= DAY_STATE_SELECTED;
+        }
+    }
+
+    /**
+     * Moves the selection within this month and only redraws the cells of the previously and the
+     * newly selected day, instead of rebinding the whole month
+     * @param day The newly selected day of the month, or -1 if the selected day is not in this month
+     */
+    public void updateSelectedDay(int day) {
+        final int previousDay = mSelectedDay;
+        if (previousDay == day) return;
+        setSelectedDay(day);
+        invalidateDay(previousDay);
+        invalidateDay(day);
+    }
+
+    /**
+     * Redraws the cell of a single day
+     * @param day The day of the month, days outside of this month are ignored
+     */
+    protected void invalidateDay(int day) {
+        if (day < 1 || day > mNumCells) return;
+        if (mWidth == 0) {
+            // The cells haven't been laid out yet
+            invalidate();
+            return;
+        }
+        ensureCellGeometry();
+        final int i = day - 1;
+        invalidate(mDayLeft[i], mDayTop[i], mDayRight[i], mDayBottom[i]);
+    }
+
+    /**
+     * Runs the constraint checks for every day of the month once and stores the results in
+     * {@link #mDayStates}.
+     */
+    private void computeDayStates() {
+        MonthModel.computeDayStates(mController, mYear, mMonth, mNumCells, mToday, mDayStates);
+        if (mSelectedDay >= 1 && mSelectedDay <= mNumCells) {
+            mDayStates[mSelectedDay - 1] |= DAY_STATE_SELECTED;
+        }
+    }
+
+    /**
+     * @param day The day of the month
+     * @param flag One of the DAY_STATE_* flags
+     * @return true if the given flag is set for the given day
+     */
+    protected boolean hasDayState(int day, byte flag) {
+        return (mDayStates[day - 1] & flag) != 0;
     }
 
     public void reuse() {
@@ -412,12 +549,6 @@ public abstract class MonthView extends View {
         return (dividend + (remainder > 0 ? 1 : 0));
     }
 
-    private boolean sameDay(int day, Calendar today) {
-        return mYear == today.get(Calendar.YEAR) &&
-                mMonth == today.get(Calendar.MONTH) &&
-                day == today.get(Calendar.DAY_OF_MONTH);
-    }
-
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), mRowHeight * mNumRows
@@ -427,6 +558,7 @@ public abstract class MonthView extends View {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         mWidth = w;
+        ensureCellGeometry();
 
         // Invalidate cached accessibility information.
         mTouchHelper.invalidateRoot();
@@ -447,37 +579,21 @@ public abstract class MonthView extends View {
         return MONTH_HEADER_SIZE;
     }
 
-    @NonNull
-    private String getMonthAndYearString() {
-        Locale locale = Locale.getDefault();
-        String pattern = "MMMM yyyy";
-
-        if(Build.VERSION.SDK_INT < 18) pattern = getContext().getResources().getString(R.string.mdtp_date_v1_monthyear);
-        else pattern = DateFormat.getBestDateTimePattern(locale, pattern);
-
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern, locale);
-        formatter.applyLocalizedPattern(pattern);
-        mStringBuilder.setLength(0);
-        return formatter.format(mCalendar.getTime());
-    }
-
     protected void drawMonthTitle(Canvas canvas) {
         int x = (mWidth + 2 * mEdgePadding) / 2;
         int y = (getMonthHeaderSize() - MONTH_DAY_LABEL_TEXT_SIZE) / 2;
-        canvas.drawText(getMonthAndYearString(), x, y, mMonthTitlePaint);
+        String title = mMonthTitle != null ? mMonthTitle : DateLabelCache.getMonthTitle(getContext(), mYear, mMonth);
+        canvas.drawText(title, x, y, mMonthTitlePaint);
     }
 
     protected void drawMonthDayLabels(Canvas canvas) {
         int y = getMonthHeaderSize() - (MONTH_DAY_LABEL_TEXT_SIZE / 2);
         int dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2);
+        String[] weekDayLabels = DateLabelCache.getWeekDayLabels(mWeekStart);
 
         for (int i = 0; i < mNumDays; i++) {
             int x = (2 * i + 1) * dayWidthHalf + mEdgePadding;
-
-            int calendarDay = (i + mWeekStart) % mNumDays;
-            mDayLabelCalendar.set(Calendar.DAY_OF_WEEK, calendarDay);
-            String weekString = getWeekDayLabel(mDayLabelCalendar);
-            canvas.drawText(weekString, x, y, mMonthDayLabelPaint);
+            canvas.drawText(weekDayLabels[i], x, y, mMonthDayLabelPaint);
         }
     }
 
@@ -488,21 +604,48 @@ public abstract class MonthView extends View {
      * @param canvas The canvas to draw on
      */
     protected void drawMonthNums(Canvas canvas) {
-        int y = (((mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2) - DAY_SEPARATOR_WIDTH)
-                + getMonthHeaderSize();
-        final float dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2.0f);
-        int j = findDayOffset();
+        ensureCellGeometry();
         for (int dayNumber = 1; dayNumber <= mNumCells; dayNumber++) {
-            final int x = (int)((2 * j + 1) * dayWidthHalf + mEdgePadding);
+            final int i = dayNumber - 1;
+            drawMonthDay(canvas, mYear, mMonth, dayNumber, mDayCenterX[i], mDayBaselineY[i],
+                    mDayLeft[i], mDayRight[i], mDayTop[i], mDayBottom[i]);
+        }
+    }
 
-            int yRelativeToDay = (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH;
+    /**
+     * Recomputes the cell geometry tables if the width, row height, day offset or number of
+     * days have changed since they were last computed.
+     */
+    protected void ensureCellGeometry() {
+        final int dayOffset = findDayOffset();
+        if (mGeometryWidth == mWidth && mGeometryRowHeight == mRowHeight
+                && mGeometryDayOffset == dayOffset && mGeometryNumCells == mNumCells
+                && mGeometryEdgePadding == mEdgePadding) {
+            return;
+        }
+        mGeometryWidth = mWidth;
+        mGeometryRowHeight = mRowHeight;
+        mGeometryDayOffset = dayOffset;
+        mGeometryNumCells = mNumCells;
+        mGeometryEdgePadding = mEdgePadding;
 
-            final int startX = (int)(x - dayWidthHalf);
-            final int stopX = (int)(x + dayWidthHalf);
-            final int startY = (int)(y - yRelativeToDay);
-            final int stopY = (int)(startY + mRowHeight);
+        final float dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2.0f);
+        for (int column = 0; column < mNumDays; column++) {
+            mColumnEdges[column] = (int) (2 * column * dayWidthHalf + mEdgePadding);
+        }
+        mColumnEdges[mNumDays] = mWidth - mEdgePadding;
 
-            drawMonthDay(canvas, mYear, mMonth, dayNumber, x, y, startX, stopX, startY, stopY);
+        final int yRelativeToDay = (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH;
+        int y = yRelativeToDay + getMonthHeaderSize();
+        int j = dayOffset;
+        for (int i = 0; i < mNumCells; i++) {
+            final int x = (int) ((2 * j + 1) * dayWidthHalf + mEdgePadding);
+            mDayCenterX[i] = x;
+            mDayBaselineY[i] = y;
+            mDayLeft[i] = (int) (x - dayWidthHalf);
+            mDayRight[i] = (int) (x + dayWidthHalf);
+            mDayTop[i] = y - yRelativeToDay;
+            mDayBottom[i] = mDayTop[i] + mRowHeight;
 
             j++;
             if (j == mNumDays) {
@@ -558,15 +701,17 @@ public abstract class MonthView extends View {
      * @return The day number
      */
     protected int getInternalDayFromLocation(float x, float y) {
-        int dayStart = mEdgePadding;
-        if (x < dayStart || x > mWidth - mEdgePadding) {
+        ensureCellGeometry();
+        if (x < mColumnEdges[0] || x > mColumnEdges[mNumDays]) {
             return -1;
         }
-        // Selection is (x - start) / (pixels/day) == (x -s) * day / pixels
         int row = (int) (y - getMonthHeaderSize()) / mRowHeight;
-        int column = (int) ((x - dayStart) * mNumDays / (mWidth - dayStart - mEdgePadding));
+        int column = mNumDays - 1;
+        while (column > 0 && x < mColumnEdges[column]) {
+            column--;
+        }
 
-        int day = column - findDayOffset() + 1;
+        int day = column - mGeometryDayOffset + 1;
         day += row * mNumDays;
         return day;
     }
@@ -581,7 +726,7 @@ public abstract class MonthView extends View {
      */
     private void onDayClick(int day) {
         // If the min / max date are set, only process the click if it's a valid selection.
-        if (mController.isOutOfRange(mYear, mMonth, day)) {
+        if (hasDayState(day, DAY_STATE_DISABLED)) {
             return;
         }
 
@@ -601,64 +746,10 @@ public abstract class MonthView extends View {
      * @return true if the given date should be highlighted
      */
     protected boolean isHighlighted(int year, int month, int day) {
-        Calendar[] highlightedDays = mController.getHighlightedDays();
-        if(highlightedDays == null) return false;
-        for (Calendar c : highlightedDays) {
-            if(year < c.get(Calendar.YEAR)) break;
-            if(year > c.get(Calendar.YEAR)) continue;
-            if(month < c.get(Calendar.MONTH)) break;
-            if(month > c.get(Calendar.MONTH)) continue;
-            if(day < c.get(Calendar.DAY_OF_MONTH)) break;
-            if(day > c.get(Calendar.DAY_OF_MONTH)) continue;
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Return a 1 or 2 letter String for use as a weekday label
-     * @param day The day for which to generate a label
-     * @return The weekday label
-     */
-    private String getWeekDayLabel(Calendar day) {
-        Locale locale = Locale.getDefault();
-
-        // Localised short version of the string is not available on API < 18
-        if(Build.VERSION.SDK_INT < 18) {
-            String dayName = new SimpleDateFormat("E", locale).format(day.getTime());
-            String dayLabel = dayName.toUpperCase(locale).substring(0, 1);
-
-            // Chinese labels should be fetched right to left
-            if (locale.equals(Locale.CHINA) || locale.equals(Locale.CHINESE) || locale.equals(Locale.SIMPLIFIED_CHINESE) || locale.equals(Locale.TRADITIONAL_CHINESE)) {
-                int len = dayName.length();
-                dayLabel = dayName.substring(len -1, len);
-            }
-
-            // Most hebrew labels should select the second to last character
-            if (locale.getLanguage().equals("he") || locale.getLanguage().equals("iw")) {
-                if(mDayLabelCalendar.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) {
-                    int len = dayName.length();
-                    dayLabel = dayName.substring(len - 2, len - 1);
-                }
-                else {
-                    // I know this is duplication, but it makes the code easier to grok by
-                    // having all hebrew code in the same block
-                    dayLabel = dayName.toUpperCase(locale).substring(0, 1);
-                }
-            }
-
-            // Catalan labels should be two digits in lowercase
-            if (locale.getLanguage().equals("ca"))
-                dayLabel = dayName.toLowerCase().substring(0,2);
-
-            // Correct single character label in Spanish is X
-            if (locale.getLanguage().equals("es") && day.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY)
-                dayLabel = "X";
-
-            return dayLabel;
+        if (year == mYear && month == mMonth && day >= 1 && day <= mNumCells) {
+            return hasDayState(day, DAY_STATE_HIGHLIGHTED);
         }
-        // Getting the short label is a one liner on API >= 18
-        return new SimpleDateFormat("EEEEE", locale).format(day.getTime());
+        return mController.isHighlighted(year, month, day);
     }
 
     /**
@@ -780,17 +871,9 @@ public abstract class MonthView extends View {
          * @param rect The rectangle in which to store the bounds
          */
         protected void getItemBounds(int day, Rect rect) {
-            final int offsetX = mEdgePadding;
-            final int offsetY = getMonthHeaderSize();
-            final int cellHeight = mRowHeight;
-            final int cellWidth = ((mWidth - (2 * mEdgePadding)) / mNumDays);
-            final int index = ((day - 1) + findDayOffset());
-            final int row = (index / mNumDays);
-            final int column = (index % mNumDays);
-            final int x = (offsetX + (column * cellWidth));
-            final int y = (offsetY + (row * cellHeight));
-
-            rect.set(x, y, (x + cellWidth), (y + cellHeight));
+            ensureCellGeometry();
+            final int i = day - 1;
+            rect.set(mDayLeft[i], mDayTop[i], mDayRight[i], mDayBottom[i]);
         }
 
         /**
@@ -0,0 +1,35 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * The source of today's date for a date picker. Today is read every time a month is bound, so
+ * implementations should return a cached value and only recompute it when the day changes.
+ *
+ * Setting a clock that always returns the same day makes the rendering of the picker
+ * independent of the system time.
+ */
+public interface PickerClock {
+
+    /**
+     * @return The epoch day of today: the number of days since 1970-01-01
+     */
+    int getTodayEpochDay();
+
+    /**
+     * Called when the picker becomes visible. From then on the clock should call the listener
+     * whenever the value returned by {@link #getTodayEpochDay()} changes.
+     * @param listener The listener to notify
+     */
+    void start(OnDayChangedListener listener);
+
+    /**
+     * Called when the picker is no longer visible. The clock should stop calling the listener.
+     */
+    void stop();
+
+    /**
+     * The callback used to notify the picker that today changed. Must be called on the main thread.
+     */
+    interface OnDayChangedListener {
+        void onDayChanged();
+    }
+}
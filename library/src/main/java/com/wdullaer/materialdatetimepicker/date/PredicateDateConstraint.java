@@ -0,0 +1,95 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+/**
+ * A {@link DateConstraint} that asks a {@link DayEnabledPredicate} about every day of a month
+ * and keeps the resulting masks of the {@link #MAX_MONTHS} most recently used months until they
+ * are invalidated. As the picker only asks for the months it shows and prefetches, and the search
+ * for the nearest selectable day stays within half that many months of where it starts, the
+ * predicate is called at most once per day between two invalidations unless the user scrolls
+ * through more than that many months. All methods are thread safe.
+ */
+final class PredicateDateConstraint implements DateConstraint {
+    // Ten years of months, a few kilobytes
+    static final int MAX_MONTHS = 120;
+
+    private final DayEnabledPredicate mPredicate;
+
+    // All of the state below is guarded by this
+    private final int[] mMonthIndices = new int[MAX_MONTHS];
+    private final int[] mMasks = new int[MAX_MONTHS];
+    // 0 for an empty slot
+    private final long[] mLastUse = new long[MAX_MONTHS];
+    private long mClock;
+    // Incremented by every invalidation, so a mask computed in the meantime is not stored
+    private int mVersion;
+
+    PredicateDateConstraint(DayEnabledPredicate predicate) {
+        mPredicate = predicate;
+    }
+
+    DayEnabledPredicate getPredicate() {
+        return mPredicate;
+    }
+
+    @Override
+    public int getMonthMask(int year, int month) {
+        final int monthIndex = DateBounds.getMonthIndex(year, month);
+        final int version;
+        synchronized (this) {
+            final int slot = indexOf(monthIndex);
+            if (slot >= 0) {
+                mLastUse[slot] = ++mClock;
+                return mMasks[slot];
+            }
+            version = mVersion;
+        }
+        // Don't hold the lock while calling into the app
+        final int numDays = EpochDays.getDaysInMonth(year, month);
+        int mask = 0;
+        for (int day = 1; day <= numDays; day++) {
+            if (mPredicate.isDayEnabled(year, month, day)) mask |= 1 << (day - 1);
+        }
+        synchronized (this) {
+            if (version == mVersion && indexOf(monthIndex) < 0) put(monthIndex, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Forgets every month, so the predicate is asked again the next time they are used
+     */
+    synchronized void invalidate() {
+        mVersion++;
+        for (int i = 0; i < MAX_MONTHS; i++) {
+            mLastUse[i] = 0;
+        }
+    }
+
+    /**
+     * Forgets a single month, so the predicate is asked again the next time it is used
+     * @param year The year
+     * @param month The month (0-11)
+     */
+    synchronized void invalidate(int year, int month) {
+        mVersion++;
+        final int slot = indexOf(DateBounds.getMonthIndex(year, month));
+        if (slot >= 0) mLastUse[slot] = 0;
+    }
+
+    private void put(int monthIndex, int mask) {
+        int victim = 0;
+        for (int i = 0; i < MAX_MONTHS; i++) {
+            if (mLastUse[i] < mLastUse[victim]) victim = i;
+        }
+        mMonthIndices[victim] = monthIndex;
+        mMasks[victim] = mask;
+        mLastUse[victim] = ++mClock;
+    }
+
+    private int indexOf(int monthIndex) {
+        for (int i = 0; i < MAX_MONTHS; i++) {
+            if (mLastUse[i] != 0 && mMonthIndices[i] == monthIndex) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,190 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import java.util.Arrays;
+
+/**
+ * A count of the selectable days in the months and years a date picker can show. Counts are
+ * computed the first time they are asked for, from the month masks of a {@link DateConstraint}:
+ * the year list only evaluates the months of the years it shows, and only skipping empty months
+ * in the day picker needs a pass over the whole range. After that pass the nearest month with a
+ * selectable day is a binary search away.
+ *
+ * Days loaded from a {@link DateAvailabilityProvider} are not taken into account, as they are
+ * only known once their month has been loaded. A summary is only used from the main thread.
+ */
+public final class SelectableDaySummary {
+    private static final int MONTHS_IN_YEAR = 12;
+    private static final int UNKNOWN = -1;
+
+    private final DateConstraint mConstraint;
+    private final int mStartEpochDay;
+    private final int mEndEpochDay;
+    private final int mFirstMonthIndex;
+    private final int mMinYear;
+    // Selectable days per month, indexed by month index - mFirstMonthIndex, UNKNOWN until counted
+    private final int[] mMonthCounts;
+    // Selectable days per year, indexed by year - mMinYear, UNKNOWN until counted
+    private final int[] mYearCounts;
+    // The month indices of the months with at least one selectable day, in ascending order.
+    // null until the whole range has been counted.
+    private int[] mNonEmptyMonths;
+    private int mTotal;
+
+    private SelectableDaySummary(DateBounds bounds, DateConstraint constraint) {
+        mConstraint = constraint;
+        mStartEpochDay = bounds.getStartEpochDay();
+        mEndEpochDay = bounds.getEndEpochDay();
+        mFirstMonthIndex = bounds.getFirstMonthIndex();
+        mMinYear = bounds.getMinYear();
+        mMonthCounts = new int[Math.max(0, bounds.getMonthCount())];
+        mYearCounts = new int[Math.max(0, bounds.getMaxYear() - mMinYear + 1)];
+        Arrays.fill(mMonthCounts, UNKNOWN);
+        Arrays.fill(mYearCounts, UNKNOWN);
+    }
+
+    /**
+     * Creates a summary of the selectable days within the given bounds. Nothing is counted yet.
+     * @param bounds The range of days the picker can show
+     * @param constraint The constraint that decides which days can be selected
+     * @return A new SelectableDaySummary
+     */
+    public static SelectableDaySummary compute(DateBounds bounds, DateConstraint constraint) {
+        return new SelectableDaySummary(bounds, constraint);
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The number of selectable days in the given month, 0 if it is out of bounds
+     */
+    public int getSelectableDayCount(int year, int month) {
+        final int position = DateBounds.getMonthIndex(year, month) - mFirstMonthIndex;
+        if (position < 0 || position >= mMonthCounts.length) return 0;
+        return getMonthCount(position);
+    }
+
+    /**
+     * @param year The year
+     * @return The number of selectable days in the given year, 0 if it is out of bounds
+     */
+    public int getSelectableDayCount(int year) {
+        final int position = year - mMinYear;
+        if (position < 0 || position >= mYearCounts.length) return 0;
+        if (mYearCounts[position] == UNKNOWN) {
+            int count = 0;
+            for (int month = 0; month < MONTHS_IN_YEAR; month++) {
+                count += getSelectableDayCount(year, month);
+            }
+            mYearCounts[position] = count;
+        }
+        return mYearCounts[position];
+    }
+
+    /**
+     * @return The number of selectable days within the bounds
+     */
+    public int getSelectableDayCount() {
+        ensureNonEmptyMonths();
+        return mTotal;
+    }
+
+    /**
+     * @return The number of months with at least one selectable day
+     */
+    public int getNonEmptyMonthCount() {
+        ensureNonEmptyMonths();
+        return mNonEmptyMonths.length;
+    }
+
+    /**
+     * @param index The index among the months with at least one selectable day
+     * @return The month index (year * 12 + month) of that month
+     */
+    public int getNonEmptyMonth(int index) {
+        ensureNonEmptyMonths();
+        return mNonEmptyMonths[index];
+    }
+
+    /**
+     * @param monthIndex A month index (year * 12 + month)
+     * @return The index of the given month among the months with at least one selectable day,
+     * or a negative value if the month has none
+     */
+    public int indexOfNonEmptyMonth(int monthIndex) {
+        ensureNonEmptyMonths();
+        final int index = Arrays.binarySearch(mNonEmptyMonths, monthIndex);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @param monthIndex A month index (year * 12 + month)
+     * @return The number of months before the given month with at least one selectable day,
+     * which is the position of the month when empty months are skipped
+     */
+    public int countNonEmptyMonthsBefore(int monthIndex) {
+        ensureNonEmptyMonths();
+        final int index = Arrays.binarySearch(mNonEmptyMonths, monthIndex);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @param monthIndex A month index (year * 12 + month)
+     * @return The month index of the first month on or after the given month with at least one
+     * selectable day, or -1 if there is none
+     */
+    public int nextNonEmptyMonth(int monthIndex) {
+        ensureNonEmptyMonths();
+        int index = Arrays.binarySearch(mNonEmptyMonths, monthIndex);
+        if (index < 0) index = -index - 1;
+        return index < mNonEmptyMonths.length ? mNonEmptyMonths[index] : -1;
+    }
+
+    /**
+     * @param monthIndex A month index (year * 12 + month)
+     * @return The month index of the last month on or before the given month with at least one
+     * selectable day, or -1 if there is none
+     */
+    public int previousNonEmptyMonth(int monthIndex) {
+        ensureNonEmptyMonths();
+        int index = Arrays.binarySearch(mNonEmptyMonths, monthIndex);
+        if (index < 0) index = -index - 2;
+        return index >= 0 ? mNonEmptyMonths[index] : -1;
+    }
+
+    private int getMonthCount(int position) {
+        if (mMonthCounts[position] == UNKNOWN) {
+            final int monthIndex = mFirstMonthIndex + position;
+            final int year = monthIndex / MONTHS_IN_YEAR;
+            final int month = monthIndex % MONTHS_IN_YEAR;
+            final int monthStart = EpochDays.of(year, month, 1);
+            final int numDays = EpochDays.getDaysInMonth(year, month);
+            // Only the first and the last month can be partially out of bounds
+            final int mask = mConstraint.getMonthMask(year, month) & DateConstraints.bits(
+                    Math.max(0, mStartEpochDay - monthStart),
+                    Math.min(numDays, mEndEpochDay - monthStart + 1) - 1);
+            mMonthCounts[position] = Integer.bitCount(mask);
+        }
+        return mMonthCounts[position];
+    }
+
+    /**
+     * Counts every month within the bounds, the first time a lookup needs all of them
+     */
+    private void ensureNonEmptyMonths() {
+        if (mNonEmptyMonths != null) return;
+        int nonEmpty = 0;
+        int total = 0;
+        for (int i = 0; i < mMonthCounts.length; i++) {
+            final int count = getMonthCount(i);
+            if (count > 0) nonEmpty++;
+            total += count;
+        }
+        int[] nonEmptyMonths = new int[nonEmpty];
+        nonEmpty = 0;
+        for (int i = 0; i < mMonthCounts.length; i++) {
+            if (mMonthCounts[i] > 0) nonEmptyMonths[nonEmpty++] = mFirstMonthIndex + i;
+        }
+        mNonEmptyMonths = nonEmptyMonths;
+        mTotal = total;
+    }
+}
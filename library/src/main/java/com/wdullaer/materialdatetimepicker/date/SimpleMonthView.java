@@ -18,7 +18,7 @@ package com.wdullaer.materialdatetimepicker.date;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Typeface;
+import android.graphics.Paint;
 import android.util.AttributeSet;
 
 public class SimpleMonthView extends MonthView {
@@ -30,31 +30,37 @@ public class SimpleMonthView extends MonthView {
     @Override
     public void drawMonthDay(Canvas canvas, int year, int month, int day,
             int x, int y, int startX, int stopX, int startY, int stopY) {
-        if (mSelectedDay == day) {
+        final byte state = mDayStates[day - 1];
+        final boolean selected = (state & DAY_STATE_SELECTED) != 0;
+        final boolean highlighted = (state & DAY_STATE_HIGHLIGHTED) != 0;
+
+        if (selected) {
             canvas.drawCircle(x , y - (MINI_DAY_NUMBER_TEXT_SIZE / 3), DAY_SELECTED_CIRCLE_SIZE,
                     mSelectedCirclePaint);
         }
 
-        if(isHighlighted(year, month, day)) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        }
-        else {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.NORMAL));
+        final Paint paint;
+        // Fade out the days while we don't know yet whether they are available
+        if ((state & DAY_STATE_PENDING) != 0) {
+            paint = mMonthNumPaint;
+            paint.setColor(mPendingDayTextColor);
         }
-
         // If we have a mindate or maxdate, gray out the day number if it's outside the range.
-        if (mController.isOutOfRange(year, month, day)) {
-            mMonthNumPaint.setColor(mDisabledDayTextColor);
+        else if ((state & DAY_STATE_DISABLED) != 0) {
+            paint = highlighted ? mMonthNumBoldPaint : mMonthNumPaint;
+            paint.setColor(mDisabledDayTextColor);
         }
-        else if (mSelectedDay == day) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-            mMonthNumPaint.setColor(mSelectedDayTextColor);
-        } else if (mHasToday && mToday == day) {
-            mMonthNumPaint.setColor(mTodayNumberColor);
+        else if (selected) {
+            paint = mMonthNumBoldPaint;
+            paint.setColor(mSelectedDayTextColor);
+        } else if ((state & DAY_STATE_TODAY) != 0) {
+            paint = highlighted ? mMonthNumBoldPaint : mMonthNumPaint;
+            paint.setColor(mTodayNumberColor);
         } else {
-            mMonthNumPaint.setColor(isHighlighted(year, month, day) ? mHighlightedDayTextColor : mDayTextColor);
+            paint = highlighted ? mMonthNumBoldPaint : mMonthNumPaint;
+            paint.setColor(highlighted ? mHighlightedDayTextColor : mDayTextColor);
         }
 
-        canvas.drawText(String.format("%d", day), x, y, mMonthNumPaint);
+        canvas.drawText(mDayNumbers[day - 1], x, y, paint);
     }
 }
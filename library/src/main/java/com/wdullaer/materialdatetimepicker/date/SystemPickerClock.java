@@ -0,0 +1,102 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.TimeZone;
+
+/**
+ * A {@link PickerClock} backed by the system clock and the default time zone. While it is started,
+ * today is only recomputed by a single callback scheduled at the next local midnight, or when the
+ * system reports that the date, the time or the time zone changed.
+ */
+public class SystemPickerClock implements PickerClock {
+    private static final long DAY_IN_MILLIS = 24 * 60 * 60 * 1000L;
+    // Keeps a daylight saving transition at midnight from rescheduling the rollover in a loop
+    private static final long MIN_ROLLOVER_DELAY = 60 * 1000L;
+
+    private final Context mContext;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final BroadcastReceiver mReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            update();
+        }
+    };
+    private final Runnable mRollover = new Runnable() {
+        @Override
+        public void run() {
+            update();
+        }
+    };
+
+    private OnDayChangedListener mListener;
+    private boolean mStarted;
+    private int mTodayEpochDay;
+    // The time at which mTodayEpochDay needs to be recomputed, 0 if it has never been computed
+    private long mTodayExpiresAt;
+
+    public SystemPickerClock(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    @Override
+    public int getTodayEpochDay() {
+        if (!mStarted) {
+            // Nothing tells us when the day changes, so check whether the cached day expired
+            final long now = System.currentTimeMillis();
+            if (now >= mTodayExpiresAt || now < mTodayExpiresAt - DAY_IN_MILLIS) computeToday(now);
+        }
+        return mTodayEpochDay;
+    }
+
+    @Override
+    public void start(OnDayChangedListener listener) {
+        if (mStarted) stop();
+        mListener = listener;
+        mStarted = true;
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_DATE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        mContext.registerReceiver(mReceiver, filter);
+        update();
+    }
+
+    @Override
+    public void stop() {
+        if (!mStarted) return;
+        mStarted = false;
+        mListener = null;
+        mContext.unregisterReceiver(mReceiver);
+        mHandler.removeCallbacks(mRollover);
+    }
+
+    /**
+     * Recomputes today, schedules the next rollover and notifies the listener if the day changed
+     */
+    private void update() {
+        if (!mStarted) return;
+        final boolean hadToday = mTodayExpiresAt != 0;
+        final int previous = mTodayEpochDay;
+        final long now = System.currentTimeMillis();
+        computeToday(now);
+
+        // The handler doesn't count deep sleep, so this may run late. ACTION_DATE_CHANGED and
+        // the check in start() cover that case.
+        mHandler.removeCallbacks(mRollover);
+        mHandler.postDelayed(mRollover, Math.max(mTodayExpiresAt - now, MIN_ROLLOVER_DELAY));
+
+        if (hadToday && previous != mTodayEpochDay && mListener != null) mListener.onDayChanged();
+    }
+
+    private void computeToday(long now) {
+        mTodayEpochDay = EpochDays.ofMillis(now);
+        final long localMidnight = (mTodayEpochDay + 1) * DAY_IN_MILLIS;
+        mTodayExpiresAt = localMidnight - TimeZone.getDefault().getOffset(localMidnight);
+    }
+}
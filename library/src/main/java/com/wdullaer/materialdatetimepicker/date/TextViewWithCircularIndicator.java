@@ -32,7 +32,10 @@ import com.wdullaer.materialdatetimepicker.R;
 
 /**
  * A text view which, when pressed or activated, displays a colored circle around the text.
+ * @deprecated The year list draws its rows with {@link YearLabelView} and no longer uses this
+ * view or the mdtp_year_label_text_view layout. Both will be removed in a future release.
  */
+@Deprecated
 public class TextViewWithCircularIndicator extends TextView {
 
     private static final int SELECTED_CIRCLE_ALPHA = 255;
@@ -43,6 +46,7 @@ public class TextViewWithCircularIndicator extends TextView {
     private final String mItemIsSelectedText;
 
     private boolean mDrawCircle;
+    private int mYear;
 
     public TextViewWithCircularIndicator(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -87,6 +91,18 @@ public class TextViewWithCircularIndicator extends TextView {
         return new ColorStateList(states, colors);
     }
 
+    /**
+     * Stores the year this row shows, so it doesn't have to be parsed back out of the text
+     * @param year The year shown by this view
+     */
+    void setYear(int year) {
+        mYear = year;
+    }
+
+    int getYear() {
+        return mYear;
+    }
+
     public void drawIndicator(boolean drawCircle) {
         mDrawCircle = drawCircle;
     }
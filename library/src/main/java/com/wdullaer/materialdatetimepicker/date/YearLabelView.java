@@ -0,0 +1,180 @@
+package com.wdullaer.materialdatetimepicker.date;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+import android.graphics.Paint.Style;
+import android.graphics.Typeface;
+import android.support.annotation.NonNull;
+import android.support.v4.content.ContextCompat;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+
+import com.wdullaer.materialdatetimepicker.R;
+
+/**
+ * A single row of the year list. The row draws its selection circle and label directly on the
+ * canvas with paints shared by every row of the list, has a fixed height and never requests a
+ * layout when it is bound to another year, so scrolling the list only costs drawing time.
+ */
+public class YearLabelView extends View {
+    private final Paints mPaints;
+    private final String mItemIsSelectedText;
+
+    private int mYear;
+    private String mLabel;
+    private boolean mSelected;
+    private boolean mHasSelectableDays;
+
+    public YearLabelView(Context context, Paints paints) {
+        super(context);
+        mPaints = paints;
+        mItemIsSelectedText = context.getResources().getString(R.string.mdtp_item_is_selected);
+    }
+
+    /**
+     * Binds this row to a year. Only invalidates the view when something visible changed.
+     * @param year The year shown by this row
+     * @param selected Whether the year is the currently selected one
+     * @param hasSelectableDays Whether the year has any day that can be selected. If not, the
+     *                          label is grayed out.
+     */
+    void setYear(int year, boolean selected, boolean hasSelectableDays) {
+        if (mLabel != null && mYear == year && mSelected == selected
+                && mHasSelectableDays == hasSelectableDays) return;
+        mYear = year;
+        mLabel = DateLabelCache.getYearLabel(year);
+        mSelected = selected;
+        mHasSelectableDays = hasSelectableDays;
+        invalidate();
+    }
+
+    int getYear() {
+        return mYear;
+    }
+
+    void setYearSelected(boolean selected) {
+        if (mSelected == selected) return;
+        mSelected = selected;
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                mPaints.mHeight);
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        // The label is drawn in the accent color while it is pressed
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        if (mLabel == null) return;
+        final int width = getWidth();
+        final int height = getHeight();
+        final Paint textPaint;
+        if (!mHasSelectableDays) {
+            textPaint = mPaints.mDisabledTextPaint;
+        } else if (isPressed()) {
+            textPaint = mPaints.mPressedTextPaint;
+        } else if (mSelected) {
+            textPaint = mPaints.mSelectedTextPaint;
+        } else {
+            textPaint = mPaints.mTextPaint;
+        }
+        if (mSelected) {
+            canvas.drawCircle(width / 2, height / 2, Math.min(width, height) / 2, mPaints.mCirclePaint);
+        }
+        canvas.drawText(mLabel, width / 2f, height / 2f - mPaints.mTextCenterOffset, textPaint);
+    }
+
+    @Override
+    public CharSequence getContentDescription() {
+        if (mSelected) {
+            return String.format(mItemIsSelectedText, mLabel);
+        } else {
+            return mLabel;
+        }
+    }
+
+    @Override
+    public void onPopulateAccessibilityEvent(AccessibilityEvent event) {
+        super.onPopulateAccessibilityEvent(event);
+        event.getText().add(getContentDescription());
+    }
+
+    /**
+     * The paints used by the rows of one year list. They are created once per list, and the
+     * colors are only updated when the accent color or the theme changes.
+     */
+    static final class Paints {
+        private static final int SELECTED_CIRCLE_ALPHA = 255;
+
+        final int mHeight;
+        final Paint mTextPaint;
+        final Paint mSelectedTextPaint;
+        final Paint mPressedTextPaint;
+        final Paint mDisabledTextPaint;
+        final Paint mCirclePaint;
+        // Distance between the vertical center of the row and the center of the text
+        final float mTextCenterOffset;
+
+        private final int mDisabledTextColor;
+        private final int mDisabledTextColorDark;
+        private int mAccentColor;
+        private boolean mThemeDark;
+
+        Paints(Context context) {
+            Resources res = context.getResources();
+            mHeight = res.getDimensionPixelSize(R.dimen.mdtp_year_label_height);
+
+            mTextPaint = new Paint();
+            mTextPaint.setAntiAlias(true);
+            mTextPaint.setTextSize(res.getDimensionPixelSize(R.dimen.mdtp_year_label_text_size));
+            mTextPaint.setTypeface(Typeface.DEFAULT);
+            mTextPaint.setTextAlign(Align.CENTER);
+            mTextPaint.setStyle(Style.FILL);
+            mSelectedTextPaint = new Paint(mTextPaint);
+            mSelectedTextPaint.setColor(Color.WHITE);
+            mPressedTextPaint = new Paint(mTextPaint);
+            mDisabledTextPaint = new Paint(mTextPaint);
+            mDisabledTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled);
+            mDisabledTextColorDark = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled_dark_theme);
+
+            mCirclePaint = new Paint();
+            mCirclePaint.setAntiAlias(true);
+            mCirclePaint.setStyle(Style.FILL);
+
+            Paint.FontMetrics metrics = mTextPaint.getFontMetrics();
+            mTextCenterOffset = (metrics.ascent + metrics.descent) / 2;
+
+            mAccentColor = Color.TRANSPARENT;
+            setColors(ContextCompat.getColor(context, R.color.mdtp_accent_color), false);
+        }
+
+        /**
+         * @param accentColor The color of the selection circle and of pressed labels
+         * @param themeDark Whether the picker uses the dark theme
+         * @return true if the colors changed and the rows need to be redrawn
+         */
+        boolean setColors(int accentColor, boolean themeDark) {
+            if (accentColor == mAccentColor && themeDark == mThemeDark) return false;
+            mAccentColor = accentColor;
+            mThemeDark = themeDark;
+            mTextPaint.setColor(themeDark ? Color.WHITE : Color.BLACK);
+            mPressedTextPaint.setColor(accentColor);
+            mDisabledTextPaint.setColor(themeDark ? mDisabledTextColorDark : mDisabledTextColor);
+            mCirclePaint.setColor(accentColor);
+            mCirclePaint.setAlpha(SELECTED_CIRCLE_ALPHA);
+            return true;
+        }
+    }
+}
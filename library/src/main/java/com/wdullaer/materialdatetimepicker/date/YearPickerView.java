@@ -22,18 +22,15 @@ import android.graphics.drawable.StateListDrawable;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
+import android.widget.AbsListView;
 import android.widget.AdapterView;
 import android.widget.AdapterView.OnItemClickListener;
-import android.widget.ArrayAdapter;
+import android.widget.BaseAdapter;
 import android.widget.ListView;
-import android.widget.TextView;
 
 import com.wdullaer.materialdatetimepicker.R;
 import com.wdullaer.materialdatetimepicker.date.DatePickerDialog.OnDateChangedListener;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Displays a selectable list of years.
  */
@@ -44,7 +41,8 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
     private YearAdapter mAdapter;
     private int mViewSize;
     private int mChildSize;
-    private TextViewWithCircularIndicator mSelectedView;
+    private final YearLabelView.Paints mPaints;
+    private YearLabelView mSelectedView;
 
     /**
      * @param context
@@ -59,6 +57,7 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
         Resources res = context.getResources();
         mViewSize = res.getDimensionPixelOffset(R.dimen.mdtp_date_picker_view_animator_height);
         mChildSize = res.getDimensionPixelOffset(R.dimen.mdtp_year_label_height);
+        mPaints = new YearLabelView.Paints(context);
         setVerticalFadingEdgeEnabled(true);
         setFadingEdgeLength(mChildSize / 3);
         init(context);
@@ -69,52 +68,81 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
     }
 
     private void init(Context context) {
-        ArrayList<String> years = new ArrayList<>();
-        for (int year = mController.getMinYear(); year <= mController.getMaxYear(); year++) {
-            years.add(String.format("%d", year));
-        }
-        mAdapter = new YearAdapter(context, R.layout.mdtp_year_label_text_view, years);
+        mAdapter = new YearAdapter(context);
         setAdapter(mAdapter);
     }
 
     @Override
     public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
         mController.tryVibrate();
-        TextViewWithCircularIndicator clickedView = (TextViewWithCircularIndicator) view;
+        YearLabelView clickedView = (YearLabelView) view;
         if (clickedView != null) {
             if (clickedView != mSelectedView) {
                 if (mSelectedView != null) {
-                    mSelectedView.drawIndicator(false);
-                    mSelectedView.requestLayout();
+                    mSelectedView.setYearSelected(false);
                 }
-                clickedView.drawIndicator(true);
-                clickedView.requestLayout();
+                clickedView.setYearSelected(true);
                 mSelectedView = clickedView;
             }
-            mController.onYearSelected(getYearFromTextView(clickedView));
+            mController.onYearSelected(clickedView.getYear());
             mAdapter.notifyDataSetChanged();
         }
     }
 
-    private static int getYearFromTextView(TextView view) {
-        return Integer.valueOf(view.getText().toString());
-    }
+    /**
+     * Lists the years between the controller's min and max year. The rows are computed from
+     * their position when they are bound, so the size of the range doesn't affect the cost of
+     * opening the picker. Years without any selectable day are grayed out and can't be clicked.
+     */
+    private class YearAdapter extends BaseAdapter {
+        private final Context mContext;
+
+        public YearAdapter(Context context) {
+            mContext = context;
+        }
+
+        @Override
+        public int getCount() {
+            return mController.getMaxYear() - mController.getMinYear() + 1;
+        }
+
+        @Override
+        public Integer getItem(int position) {
+            return mController.getMinYear() + position;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mController.getMinYear() + position;
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
+        }
 
-    private class YearAdapter extends ArrayAdapter<String> {
+        @Override
+        public boolean areAllItemsEnabled() {
+            return false;
+        }
 
-        public YearAdapter(Context context, int resource, List<String> objects) {
-            super(context, resource, objects);
+        @Override
+        public boolean isEnabled(int position) {
+            return mController.getSelectableDaySummary()
+                    .getSelectableDayCount(mController.getMinYear() + position) > 0;
         }
 
         @Override
         public View getView(int position, View convertView, ViewGroup parent) {
-            TextViewWithCircularIndicator v = (TextViewWithCircularIndicator)
-                    super.getView(position, convertView, parent);
-            v.setAccentColor(mController.getAccentColor(), mController.isThemeDark());
-            v.requestLayout();
-            int year = getYearFromTextView(v);
+            YearLabelView v = (YearLabelView) convertView;
+            if (v == null) {
+                v = new YearLabelView(mContext, mPaints);
+                v.setLayoutParams(new AbsListView.LayoutParams(
+                        LayoutParams.MATCH_PARENT, mPaints.mHeight));
+            }
+            int year = mController.getMinYear() + position;
             boolean selected = mController.getSelectedDay().year == year;
-            v.drawIndicator(selected);
+            v.setYear(year, selected, isEnabled(position));
             if (selected) {
                 mSelectedView = v;
             }
@@ -147,6 +175,10 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
 
     @Override
     public void onDateChanged() {
+        // Picks up a new accent color or theme, the rows themselves never set colors
+        if (mPaints.setColors(mController.getAccentColor(), mController.isThemeDark())) {
+            invalidateViews();
+        }
         mAdapter.notifyDataSetChanged();
         postSetSelectionCentered(mController.getSelectedDay().year - mController.getMinYear());
     }